@@ -14,6 +14,8 @@ import com.vladmihalcea.hibernate.type.json.JsonType;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 import org.hibernate.annotations.TypeDefs;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.lang.NonNull;
 
@@ -27,7 +29,7 @@ import lombok.NoArgsConstructor;
  * Audit POJO class for all models.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @Data
@@ -40,6 +42,10 @@ import lombok.NoArgsConstructor;
         @TypeDef(name = "json", typeClass = JsonType.class)
 })
 @Document(collection = "audits")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "objectId_createdAt_id", def = "{'objectId': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Audit extends GenericFields {
     @NonNull
     @Schema(example = "com.iperka.vacations.api.Example")
@@ -5,7 +5,11 @@ import java.util.List;
 
 import com.iperka.vacations.api.audit.exceptions.AuditNotFoundException;
 import com.iperka.vacations.api.config.OpenApiConfig;
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 import com.iperka.vacations.api.helpers.GenericResponse;
+import com.iperka.vacations.api.helpers.exceptions.InvalidCursorException;
+import com.iperka.vacations.api.helpers.openapi.responses.BadRequestResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.ForbiddenResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.InternalServerErrorResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.UnauthorizedResponse;
@@ -29,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,7 +44,7 @@ import lombok.extern.slf4j.Slf4j;
  * RestController endpoint for /audit logs route.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @Slf4j
@@ -53,11 +58,14 @@ public class AuditController {
 
     /**
      * Index route for /audit logs endpoint. Returns all audit logs (if user
-     * is authorized).
+     * is authorized). If the cursor parameter is present, keyset pagination
+     * ordered by creation date will be used instead of pages.
      * 
      * @since 1.0.0
      * @param authentication Will be provided by Spring Security.
      * @param pageable       Adds built in pagination.
+     * @param cursor         Cursor of the previous page, empty for the first
+     *                       page.
      * @return A generic Response with a list of all audit logs as data property.
      */
     @GetMapping
@@ -74,6 +82,7 @@ public class AuditController {
         tags = {"Audit Logs"}, 
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = AuditListResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
             @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
@@ -84,10 +93,24 @@ public class AuditController {
     // @formatter:off
         final Authentication authentication,
         @ParameterObject @RequestParam(name = "objectId", required = false) final String objectId,
-        @ParameterObject @PageableDefault(size = 20, sort = "createdAt", direction = Direction.DESC) final Pageable pageable
+        @ParameterObject @PageableDefault(size = 20, sort = "createdAt", direction = Direction.DESC) final Pageable pageable,
+        @RequestParam(required = false) @Parameter(description = "Enables cursor pagination ordered by creation date. Pass an empty value for the first page and metadata.nextCursor afterwards.") final String cursor
      // @formatter:on
     ) {
         // TODO: Evaluate permissions.
+        // Use keyset pagination if cursor is set (skips count query)
+        if (cursor != null) {
+            final CursorPage<Audit> cursorPage;
+            try {
+                cursorPage = auditService.findAllAfter(objectId, Cursor.decode(cursor), pageable.getPageSize());
+            } catch (final InvalidCursorException e) {
+                return new GenericResponse<List<Audit>>(HttpStatus.BAD_REQUEST)
+                        .fromError(HttpStatus.BAD_REQUEST, e.toApiError()).build();
+            }
+
+            return GenericResponse.<Audit>fromCursorPage(HttpStatus.OK, cursorPage, null).build();
+        }
+
         Page<Audit> page;
         if (objectId != null) {
             page = auditService.findAllByObjectId(objectId, pageable);
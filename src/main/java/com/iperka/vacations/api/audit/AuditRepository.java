@@ -12,10 +12,10 @@ import org.springframework.stereotype.Repository;
  * {@link PagingAndSortingRepository} interface for pagination support.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @Repository
-public interface AuditRepository extends PagingAndSortingRepository<Audit, String> {
+public interface AuditRepository extends PagingAndSortingRepository<Audit, String>, AuditRepositoryCustom {
     public Page<Audit> findAllByObjectId(String objectId, Pageable pageable);
 }
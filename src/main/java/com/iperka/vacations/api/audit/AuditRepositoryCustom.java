@@ -0,0 +1,28 @@
+package com.iperka.vacations.api.audit;
+
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
+
+/**
+ * Repository interface for queries which can not be derived from method
+ * names and are therefore implemented manually.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public interface AuditRepositoryCustom {
+    /**
+     * Retrieves audit logs ordered by creation date (newest first) using
+     * keyset pagination. Elements after the given cursor are selected by a
+     * range seek on {@code (createdAt, _id)}, no count query will be executed.
+     *
+     * @since 1.0.14
+     * @param objectId Object id of desired audit logs. If null, all audit logs
+     *                 will be returned.
+     * @param cursor   Cursor of the previous page or null for the first page.
+     * @param size     Page size.
+     * @return Page with audit logs and the cursor of the next page.
+     */
+    public CursorPage<Audit> findAllAfter(String objectId, Cursor cursor, int size);
+}
@@ -0,0 +1,52 @@
+package com.iperka.vacations.api.audit;
+
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Implements the {@link AuditRepositoryCustom} interface using the
+ * {@link MongoTemplate}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class AuditRepositoryCustomImpl implements AuditRepositoryCustom {
+    private static final String CREATED_AT = "createdAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Retrieves audit logs ordered by creation date (newest first) using
+     * keyset pagination. One element more than requested will be fetched to
+     * detect the next page.
+     *
+     * @since 1.0.14
+     * @param objectId Object id of desired audit logs. If null, all audit logs
+     *                 will be returned.
+     * @param cursor   Cursor of the previous page or null for the first page.
+     * @param size     Page size.
+     * @return Page with audit logs and the cursor of the next page.
+     */
+    @Override
+    public CursorPage<Audit> findAllAfter(final String objectId, final Cursor cursor, final int size) {
+        final Query query = new Query();
+        if (objectId != null) {
+            query.addCriteria(Criteria.where("objectId").is(objectId));
+        }
+        if (cursor != null) {
+            query.addCriteria(cursor.after(CREATED_AT, Direction.DESC));
+        }
+        query.with(Cursor.sort(CREATED_AT, Direction.DESC)).limit(size + 1);
+
+        return CursorPage.of(mongoTemplate.find(query, Audit.class), size, cursor == null,
+                audit -> new Cursor(audit.getCreatedAt(), audit.getId()));
+    }
+}
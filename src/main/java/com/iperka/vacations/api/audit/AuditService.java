@@ -3,6 +3,8 @@ package com.iperka.vacations.api.audit;
 
 
 import com.iperka.vacations.api.audit.exceptions.AuditNotFoundException;
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,7 +13,7 @@ import org.springframework.data.domain.Pageable;
  * Service defining interface for {@link Audit} resources.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 public interface AuditService {
@@ -45,6 +47,17 @@ public interface AuditService {
      */
     public abstract Page<Audit> findAllByObjectId(String objectId, Pageable pageable);
 
+    /**
+     * Returns Audit logs (newest first) using keyset pagination.
+     * 
+     * @since 1.0.14
+     * @param objectId Object id of desired Audit logs or null for all.
+     * @param cursor   Cursor of the previous page or null for the first page.
+     * @param size     Page size.
+     * @return Page object containing Audit logs and the cursor of the next page.
+     */
+    public abstract CursorPage<Audit> findAllAfter(String objectId, Cursor cursor, int size);
+
     /**
      * Returns a Audit created based on given object as {@link Audit}.
      * 
@@ -53,4 +66,13 @@ public interface AuditService {
      * @return Audit object.
      */
     public abstract Audit create(Audit audit);
+
+    /**
+     * Queues given Audit to be written in the background. Use instead of
+     * {@link #create(Audit)} if the caller doesn't need the saved object.
+     * 
+     * @since 1.0.14
+     * @param audit Audit object to save.
+     */
+    public abstract void submit(Audit audit);
 }
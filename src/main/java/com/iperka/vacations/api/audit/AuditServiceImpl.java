@@ -3,8 +3,11 @@ package com.iperka.vacations.api.audit;
 
 
 import com.iperka.vacations.api.audit.exceptions.AuditNotFoundException;
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,6 +26,12 @@ public class AuditServiceImpl implements AuditService {
     @Autowired
     private AuditRepository auditRepository;
 
+    @Autowired
+    private AuditWriter auditWriter;
+
+    @Autowired
+    private AuditorAware<String> auditorProvider;
+
     /**
      * Returns all audits as {@link Page} object to offer pagination
      * metadata.
@@ -64,6 +73,21 @@ public class AuditServiceImpl implements AuditService {
         return auditRepository.findAllByObjectId(objectId, pageable);
     }
 
+    /**
+     * Returns audit logs (newest first) using keyset pagination.
+     * 
+     * @since 1.0.14
+     * @param objectId Object id of desired audit logs or null for all.
+     * @param cursor   Cursor of the previous page or null for the first page.
+     * @param size     Page size.
+     * @return Page object containing audit logs and the cursor of the next page.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_audits:all:read', 'SCOPE_audits:all:write')")
+    public CursorPage<Audit> findAllAfter(String objectId, Cursor cursor, int size) {
+        return auditRepository.findAllAfter(objectId, cursor, size);
+    }
+
     /**
      * Returns a audit created based on given object as {@link Audit}.
      * 
@@ -76,4 +100,22 @@ public class AuditServiceImpl implements AuditService {
         audit.setOwner("admin");
         return auditRepository.save(audit);
     }
+
+    /**
+     * Queues given audit to be written in the background. The auditor will
+     * be resolved immediately since the security context is not available
+     * on the writer thread.
+     * 
+     * @since 1.0.14
+     * @param audit Audit object to save.
+     */
+    @Override
+    public void submit(Audit audit) {
+        audit.setOwner("admin");
+        auditorProvider.getCurrentAuditor().ifPresent(auditor -> {
+            audit.setCreatedBy(auditor);
+            audit.setUpdatedBy(auditor);
+        });
+        auditWriter.write(audit);
+    }
 }
@@ -0,0 +1,181 @@
+package com.iperka.vacations.api.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes {@link Audit} logs in the background. Audits are collected in a
+ * bounded queue and inserted in batches using a single insertMany per batch,
+ * so the request latency does not include the audit insert.
+ *
+ * A batch will be written once it is full or the linger time since its first
+ * element has passed. If the queue is full, the caller waits up to the offer
+ * timeout and writes the audit itself if there is still no space left. On
+ * shutdown the queue will be flushed.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class AuditWriter {
+    private static final long IDLE_POLL_MS = 1000L;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000L;
+
+    @Value("${audit.queueCapacity}")
+    private int queueCapacity;
+
+    @Value("${audit.batchSize}")
+    private int batchSize;
+
+    @Value("${audit.lingerMs}")
+    private long lingerMs;
+
+    @Value("${audit.offerTimeoutMs}")
+    private long offerTimeoutMs;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private BlockingQueue<Audit> queue;
+    private Thread worker;
+    private volatile boolean running = false;
+
+    /**
+     * Starts the background writer.
+     *
+     * @since 1.0.14
+     */
+    @PostConstruct
+    public void start() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.running = true;
+
+        this.worker = new Thread(this::run, "audit-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Stops the background writer and waits until all queued audits have
+     * been written.
+     *
+     * @since 1.0.14
+     */
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+
+        try {
+            this.worker.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Audits queued while stopping
+        final List<Audit> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            insert(remaining);
+        }
+    }
+
+    /**
+     * Queues the given audit. Blocks up to the configured offer timeout if the
+     * queue is full and writes the audit synchronously afterwards.
+     *
+     * @since 1.0.14
+     * @param audit Audit to write.
+     */
+    public void write(final Audit audit) {
+        try {
+            if (this.running && this.queue.offer(audit, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Queue is full or writer has been stopped
+        log.debug("Audit queue is full, writing audit synchronously.");
+        insert(List.of(audit));
+    }
+
+    /**
+     * Returns the number of queued audits.
+     *
+     * @since 1.0.14
+     * @return Queue size.
+     */
+    public int getQueueSize() {
+        return this.queue.size();
+    }
+
+    private void run() {
+        final List<Audit> batch = new ArrayList<>(batchSize);
+
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!batch.isEmpty()) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for the first audit and adds further audits until the batch is
+     * full or the linger time is over.
+     */
+    private void collect(final List<Audit> batch) throws InterruptedException {
+        final Audit first = this.running ? this.queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS) : this.queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            this.queue.drainTo(batch, batchSize - batch.size());
+
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0L || !this.running) {
+                return;
+            }
+
+            final Audit next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void insert(final List<Audit> batch) {
+        try {
+            this.mongoTemplate.insert(new ArrayList<>(batch), Audit.class);
+        } catch (final Exception e) {
+            log.error("Exception occurred while writing {} audit(s).", batch.size(), e);
+        }
+    }
+}
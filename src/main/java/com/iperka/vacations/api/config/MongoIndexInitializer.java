@@ -0,0 +1,199 @@
+package com.iperka.vacations.api.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.iperka.vacations.api.audit.Audit;
+import com.iperka.vacations.api.mail.OutboxMail;
+import com.iperka.vacations.api.users.User;
+import com.iperka.vacations.api.vacations.Vacation;
+import com.iperka.vacations.api.vacations.VacationOccupancy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared on the documents at startup and verifies
+ * that every known repository query shape is covered by an index. Queries
+ * which would result in a collection scan are reported as warnings.
+ *
+ * Spring Data MongoDB does not create indexes automatically anymore, so
+ * this component is the single place where indexes get created.
+ *
+ * @author Michael Beutler
+ * @version 1.0.4
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class MongoIndexInitializer {
+    private static final String ID = "_id";
+
+    /**
+     * Query shapes of the repositories per document.
+     */
+    // @formatter:off
+    private static final Map<Class<?>, List<QueryShape>> QUERY_SHAPES = Map.of(
+        Vacation.class, List.of(
+            new QueryShape("VacationRepository.findAll", List.of(), List.of("createdAt")),
+            new QueryShape("VacationRepository.findAllByOwner", List.of("owner"), List.of("createdAt")),
+            new QueryShape("VacationRepository.findByIdAndOwner", List.of(ID, "owner"), List.of()),
+            new QueryShape("VacationRepository.findByOwnerAndStartDateGreaterThanEqualOrderByStartDateAsc", List.of("owner"), List.of("startDate")),
+            new QueryShape("VacationRepository.deleteByIdAndOwner", List.of(ID, "owner"), List.of()),
+            new QueryShape("VacationRepository.sumDaysByMonth", List.of("owner", "months.year"), List.of()),
+            new QueryShape("VacationRepository.sumDaysByMonth (all owners)", List.of("months.year"), List.of()),
+            new QueryShape("VacationRepository.findAllAfter", List.of("owner"), List.of("startDate", ID)),
+            new QueryShape("VacationRepository.findAllAfter (all owners)", List.of(), List.of("startDate", ID)),
+            new QueryShape("VacationRepository.streamAll", List.of("owner"), List.of("startDate", ID)),
+            new QueryShape("VacationRepository.streamAll (all owners)", List.of(), List.of("startDate", ID)),
+            new QueryShape("VacationRepository.findFirstOverlapping", List.of("owner"), List.of("endDate", "startDate")),
+            new QueryShape("VacationRepository.findAllOverlapping", List.of("owner"), List.of("endDate", "startDate"))
+        ),
+        Audit.class, List.of(
+            new QueryShape("AuditRepository.findAll", List.of(), List.of("createdAt")),
+            new QueryShape("AuditRepository.findAllByObjectId", List.of("objectId"), List.of("createdAt")),
+            new QueryShape("AuditRepository.findAllAfter", List.of("objectId"), List.of("createdAt", ID)),
+            new QueryShape("AuditRepository.findAllAfter (all objects)", List.of(), List.of("createdAt", ID))
+        ),
+        User.class, List.of(
+            new QueryShape("UserRepository.findByOwner", List.of("owner"), List.of()),
+            new QueryShape("UserRepository.findByEmailHash", List.of("emailHash"), List.of()),
+            new QueryShape("UserRepository.findByPhoneHash", List.of("phoneHash"), List.of()),
+            new QueryShape("UserRepository.findAllByEmailHashInOrPhoneHashIn (emailHash)", List.of("emailHash"), List.of()),
+            new QueryShape("UserRepository.findAllByEmailHashInOrPhoneHashIn (phoneHash)", List.of("phoneHash"), List.of()),
+            new QueryShape("UserRepository.existsByEmailHashOrPhoneHashOrOwner (emailHash)", List.of("emailHash"), List.of()),
+            new QueryShape("UserRepository.existsByEmailHashOrPhoneHashOrOwner (phoneHash)", List.of("phoneHash"), List.of()),
+            new QueryShape("UserRepository.existsByEmailHashOrPhoneHashOrOwner (owner)", List.of("owner"), List.of()),
+            new QueryShape("UserRepository.deleteByIdAndOwner", List.of(ID, "owner"), List.of()),
+            new QueryShape("UserRepository.deleteAllByOwner", List.of("owner"), List.of())
+        ),
+        OutboxMail.class, List.of(
+            new QueryShape("OutboxMailRepository.claim", List.of("status"), List.of("nextAttemptAt")),
+            new QueryShape("OutboxMailRepository.countByStatus", List.of("status"), List.of())
+        ),
+        VacationOccupancy.class, List.of(
+            new QueryShape("VacationOccupancyRepository.findAllById", List.of(ID), List.of())
+        )
+    );
+    // @formatter:on
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Ensures all declared indexes exist and reports uncovered query shapes.
+     * Exceptions will be logged and don't prevent the application from
+     * starting.
+     *
+     * @since 1.0.14
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndexes() {
+        final MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                mongoTemplate.getConverter().getMappingContext());
+
+        for (Map.Entry<Class<?>, List<QueryShape>> entry : QUERY_SHAPES.entrySet()) {
+            try {
+                final IndexOperations indexOperations = mongoTemplate.indexOps(entry.getKey());
+                for (IndexDefinition definition : resolver.resolveIndexFor(entry.getKey())) {
+                    indexOperations.ensureIndex(definition);
+                }
+
+                verify(entry.getKey(), indexOperations.getIndexInfo(), entry.getValue());
+            } catch (final Exception e) {
+                log.error("Exception occurred while creating indexes for {}.", entry.getKey().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Logs a warning for each query shape which is not covered by any of the
+     * given indexes.
+     *
+     * @param type    Document type.
+     * @param indexes Existing indexes.
+     * @param shapes  Query shapes.
+     * @return List of uncovered query shapes.
+     */
+    static List<QueryShape> verify(final Class<?> type, final List<IndexInfo> indexes, final List<QueryShape> shapes) {
+        final List<List<String>> keys = indexes.stream()
+                .map(index -> index.getIndexFields().stream().map(IndexField::getKey).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+
+        final List<QueryShape> uncovered = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            if (keys.stream().noneMatch(shape::isCoveredBy)) {
+                uncovered.add(shape);
+                log.warn("Query {} on {} is not covered by any index and will scan the collection.",
+                        shape.getName(), type.getSimpleName());
+            }
+        }
+
+        log.info("Verified {} query shape(s) on {}, {} uncovered.", shapes.size(), type.getSimpleName(),
+                uncovered.size());
+        return uncovered;
+    }
+
+    /**
+     * Describes the fields a query filters on by equality and the fields it
+     * sorts or filters by range on afterwards.
+     *
+     * @author Michael Beutler
+     * @version 1.0.0
+     * @since 1.0.14
+     */
+    static final class QueryShape {
+        private final String name;
+        private final List<String> equalityFields;
+        private final List<String> sortFields;
+
+        QueryShape(final String name, final List<String> equalityFields, final List<String> sortFields) {
+            this.name = name;
+            this.equalityFields = equalityFields;
+            this.sortFields = sortFields;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * An index covers the shape if its leading keys are the equality fields
+         * (in any order) followed by the sort fields. Shapes with an equality
+         * on the id are always covered by the unique id index.
+         *
+         * @param indexKeys Ordered index keys.
+         * @return true if covered.
+         */
+        boolean isCoveredBy(final List<String> indexKeys) {
+            if (equalityFields.contains(ID)) {
+                return indexKeys.size() == 1 && indexKeys.get(0).equals(ID);
+            }
+
+            final int size = equalityFields.size() + sortFields.size();
+            if (indexKeys.size() < size) {
+                return false;
+            }
+
+            final Set<String> leading = Set.copyOf(indexKeys.subList(0, equalityFields.size()));
+            return leading.equals(Set.copyOf(equalityFields))
+                    && indexKeys.subList(equalityFields.size(), size).equals(sortFields);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.iperka.vacations.api.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe counting Bloom filter for strings. Every slot is a 4 bit
+ * counter, so values can be removed again. A negative answer of
+ * {@link #mightContain(String)} is definite, a positive answer is wrong with
+ * the configured probability.
+ *
+ * Counters saturate at 15 and are never decremented afterwards, which keeps
+ * removals from introducing false negatives.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 0xFL;
+
+    private final AtomicLongArray counters;
+    private final long size;
+    private final int hashFunctions;
+
+    /**
+     * Creates an empty filter sized for the given number of values.
+     *
+     * @param expectedInsertions       Expected number of values.
+     * @param falsePositiveProbability Desired false positive probability.
+     */
+    public CountingBloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Invalid size or false positive probability.");
+        }
+
+        final double ln2 = Math.log(2);
+        final long words = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2) / COUNTERS_PER_WORD);
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter too large.");
+        }
+
+        this.counters = new AtomicLongArray((int) words);
+        this.size = words * COUNTERS_PER_WORD;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) this.size / expectedInsertions * ln2));
+    }
+
+    /**
+     * Adds given value.
+     *
+     * @param value Value to add.
+     */
+    public void add(final String value) {
+        final long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    /**
+     * Removes given value. Must only be called for values which have been
+     * added before.
+     *
+     * @param value Value to remove.
+     */
+    public void remove(final String value) {
+        final long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    /**
+     * Returns false if given value has definitely not been added.
+     *
+     * @param value Value to check.
+     * @return false if absent, true if probably present.
+     */
+    public boolean mightContain(final String value) {
+        final long hash = hash(value);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (count(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the share of counters which are not zero.
+     *
+     * @return Value between 0 and 1.
+     */
+    public double fillRatio() {
+        long used = 0;
+        for (int word = 0; word < counters.length(); word++) {
+            final long value = counters.get(word);
+            for (int slot = 0; slot < COUNTERS_PER_WORD; slot++) {
+                if (((value >>> (slot * 4)) & MAX_COUNT) != 0) {
+                    used++;
+                }
+            }
+        }
+
+        return (double) used / size;
+    }
+
+    /**
+     * Returns the false positive probability expected from the current fill
+     * ratio.
+     *
+     * @return Value between 0 and 1.
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow(fillRatio(), hashFunctions);
+    }
+
+    private long index(final long hash, final int i) {
+        // Kirsch-Mitzenmacher: derive all indexes from two halves of one hash.
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + (long) i * h2, size);
+    }
+
+    private long count(final long index) {
+        final int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        return (counters.get((int) (index / COUNTERS_PER_WORD)) >>> shift) & MAX_COUNT;
+    }
+
+    private void update(final long index, final int delta) {
+        final int word = (int) (index / COUNTERS_PER_WORD);
+        final int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            final long value = counters.get(word);
+            final long count = (value >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+
+            final long updated = (value & ~(MAX_COUNT << shift)) | ((count + delta) << shift);
+            if (counters.compareAndSet(word, value, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the UTF-8 bytes, finished with the MurmurHash3
+     * mixer.
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3f9fe1a85e3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,114 @@
+package com.iperka.vacations.api.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import com.iperka.vacations.api.helpers.exceptions.InvalidCursorException;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.util.StringUtils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Continuation token for keyset pagination. A cursor points to the last
+ * element of a page by its sort value and id, the next page starts right
+ * after it. Unlike offset pages no elements have to be skipped and no count
+ * query is required, so every page costs the same.
+ *
+ * Cursors are handed to clients as opaque URL safe strings.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+public class Cursor {
+    private static final String SEPARATOR = ":";
+    private static final String ID = "id";
+
+    /**
+     * Sort value of the last element.
+     */
+    private Date value;
+
+    /**
+     * Id of the last element, breaks ties between equal sort values.
+     */
+    private String id;
+
+    /**
+     * Encodes the cursor as opaque string.
+     *
+     * @since 1.0.14
+     * @return URL safe cursor string.
+     */
+    public String encode() {
+        final String raw = this.value.getTime() + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()}.
+     *
+     * @since 1.0.14
+     * @param cursor Cursor string, empty or null for the first page.
+     * @return Cursor or null if the first page is requested.
+     * @throws InvalidCursorException if the cursor is malformed.
+     */
+    public static Cursor decode(final String cursor) throws InvalidCursorException {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new InvalidCursorException();
+            }
+
+            return new Cursor(new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Returns the criteria selecting all elements after this cursor in the
+     * given sort order: {@code (field, id) > (value, id)} for ascending and
+     * {@code (field, id) < (value, id)} for descending order. With an index
+     * on {@code (field, _id)} this is a range seek.
+     *
+     * @since 1.0.14
+     * @param field     Sort field.
+     * @param direction Sort direction.
+     * @return Seek criteria.
+     */
+    public Criteria after(final String field, final Direction direction) {
+        if (direction.isAscending()) {
+            return new Criteria().orOperator(Criteria.where(field).gt(this.value),
+                    Criteria.where(field).is(this.value).and(ID).gt(this.id));
+        }
+
+        return new Criteria().orOperator(Criteria.where(field).lt(this.value),
+                Criteria.where(field).is(this.value).and(ID).lt(this.id));
+    }
+
+    /**
+     * Returns the sort order matching {@link #after(String, Direction)}.
+     *
+     * @since 1.0.14
+     * @param field     Sort field.
+     * @param direction Sort direction.
+     * @return Sort by field and id.
+     */
+    public static Sort sort(final String field, final Direction direction) {
+        return Sort.by(direction, field, ID);
+    }
+}
@@ -0,0 +1,57 @@
+package com.iperka.vacations.api.helpers;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Page of a keyset paginated query. Contains the elements and the cursor of
+ * the next page, no totals will be calculated.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean first;
+    private Cursor next;
+
+    /**
+     * Builds a page from the result of a query limited to {@code size + 1}
+     * elements. The additional element only indicates that there is a next
+     * page and will be removed.
+     *
+     * @since 1.0.14
+     * @param <T>      Element type.
+     * @param elements Query result with up to size + 1 elements.
+     * @param size     Requested page size.
+     * @param first    True if no cursor has been provided.
+     * @param toCursor Function creating the cursor of an element.
+     * @return Page object.
+     */
+    public static <T> CursorPage<T> of(final List<T> elements, final int size, final boolean first,
+            final Function<T, Cursor> toCursor) {
+        if (elements.size() <= size) {
+            return new CursorPage<>(elements, size, first, null);
+        }
+
+        final List<T> content = elements.subList(0, size);
+        return new CursorPage<>(content, size, first, toCursor.apply(content.get(size - 1)));
+    }
+
+    /**
+     * Returns true if there is no next page.
+     *
+     * @since 1.0.14
+     * @return true if last page.
+     */
+    public boolean isLast() {
+        return this.next == null;
+    }
+}
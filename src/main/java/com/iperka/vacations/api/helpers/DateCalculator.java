@@ -2,23 +2,39 @@ package com.iperka.vacations.api.helpers;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * DateCalculator class for helping with different date operations.
- * 
+ *
+ * Business days are counted in closed form: the weekdays of a range are
+ * derived from the epoch day arithmetic and holidays are looked up in a
+ * sorted array of epoch days using binary search. Counting is therefore
+ * independent of the length of the range.
+ *
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 public class DateCalculator {
+        private static final long[] NO_HOLIDAYS = new long[0];
+
+        /**
+         * Epoch day of Monday 1969-12-29, used as base for weekday arithmetic.
+         */
+        private static final long MONDAY_EPOCH_DAY = -3L;
 
         /**
          * Get business dates for given date range.
-         * 
+         *
          * @param startDate start date.
          * @param endDate   end date.
          * @param holidays  list of special holidays.
@@ -28,28 +44,18 @@ public class DateCalculator {
                         LocalDate endDate,
                         final Optional<List<LocalDate>> holidays) throws IllegalArgumentException {
                 // Validate method arguments
+                validate(startDate, endDate, holidays);
 
-                if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
-                        throw new IllegalArgumentException(
-                                        "Invalid method argument(s) to countBusinessDaysBetween (" + startDate
-                                                        + "," + endDate + "," + holidays + ")");
-                }
-
-                // Predicate 1: Is a given date is a holiday
-                Predicate<LocalDate> isHoliday = date -> holidays.isPresent()
-                                && holidays.get().contains(date);
-
-                // Predicate 2: Is a given date is a weekday
-                Predicate<LocalDate> isWeekend = date -> date.getDayOfWeek() == DayOfWeek.SATURDAY
-                                || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+                final long[] sortedHolidays = toSortedEpochDays(holidays.orElse(null));
+                final List<LocalDate> list = new ArrayList<>();
 
-                // Iterate over stream of all dates and check each day against any weekday or
-                // holiday
-                List<LocalDate> list = startDate.datesUntil(endDate)
-                                .filter(isWeekend.or(isHoliday).negate())
-                                .collect(Collectors.toList());
+                for (long day = startDate.toEpochDay(); day < endDate.toEpochDay(); day++) {
+                        if (isBusinessDay(day, sortedHolidays)) {
+                                list.add(LocalDate.ofEpochDay(day));
+                        }
+                }
 
-                if (list.size() == 0) {
+                if (list.isEmpty()) {
                         list.add(startDate);
                 }
 
@@ -58,7 +64,7 @@ public class DateCalculator {
 
         /**
          * Get count of business days for given date range.
-         * 
+         *
          * @param startDate start date.
          * @param endDate   end date.
          * @param holidays  list of special holidays.
@@ -67,9 +73,216 @@ public class DateCalculator {
         public static int countBusinessDaysBetween(final LocalDate startDate,
                         final LocalDate endDate,
                         final Optional<List<LocalDate>> holidays) throws IllegalArgumentException {
-                List<LocalDate> businessDays = DateCalculator.getBusinessDaysBetween(startDate, endDate, holidays);
+                // Validate method arguments
+                validate(startDate, endDate, holidays);
+
+                final long count = countBusinessDays(startDate.toEpochDay(), endDate.toEpochDay(),
+                                toSortedEpochDays(holidays.orElse(null)));
+
+                // A range without any business day counts as its start date
+                return (int) Math.max(1L, count);
+        }
+
+        /**
+         * Converts holidays into a sorted array of distinct epoch days. Holidays
+         * on weekends are dropped since they never reduce the business day count.
+         *
+         * @since 1.0.14
+         * @param holidays list of special holidays (can be null).
+         * @return sorted epoch days.
+         */
+        public static long[] toSortedEpochDays(final Collection<LocalDate> holidays) {
+                if (holidays == null || holidays.isEmpty()) {
+                        return NO_HOLIDAYS;
+                }
+
+                final long[] days = holidays.stream()
+                                .mapToLong(LocalDate::toEpochDay)
+                                .filter(day -> !isWeekend(day))
+                                .sorted()
+                                .distinct()
+                                .toArray();
+
+                return days.length == 0 ? NO_HOLIDAYS : days;
+        }
+
+        /**
+         * Counts business days between start (inclusive) and end (exclusive)
+         * without allocating. Runs in O(log h) where h is the number of
+         * holidays.
+         *
+         * @since 1.0.14
+         * @param startEpochDay  start epoch day (inclusive).
+         * @param endEpochDay    end epoch day (exclusive).
+         * @param sortedHolidays sorted weekday holidays as epoch days. See
+         *                       {@link #toSortedEpochDays(Collection)}.
+         * @return count of business days, 0 if end is not after start.
+         */
+        public static long countBusinessDays(final long startEpochDay, final long endEpochDay,
+                        final long[] sortedHolidays) {
+                if (endEpochDay <= startEpochDay) {
+                        return 0L;
+                }
+
+                final long weekdays = weekdaysBefore(endEpochDay) - weekdaysBefore(startEpochDay);
+                final long holidays = lowerBound(sortedHolidays, endEpochDay)
+                                - lowerBound(sortedHolidays, startEpochDay);
+
+                return weekdays - holidays;
+        }
+
+        /**
+         * Distributes the given number of vacation days over the business days
+         * between start (inclusive) and end (exclusive) in chronological order
+         * and returns the share of each month. Each business day takes at most
+         * one day, the remaining fraction is assigned to the last one. A range
+         * without any business day assigns up to one day to the start month.
+         *
+         * @since 1.0.14
+         * @param startDate      start date.
+         * @param endDate        end date.
+         * @param days           number of vacation days.
+         * @param sortedHolidays sorted weekday holidays as epoch days.
+         * @return Map with days for each month in chronological order.
+         */
+        public static Map<YearMonth, Double> distributeDaysByMonth(final LocalDate startDate,
+                        final LocalDate endDate, final double days, final long[] sortedHolidays)
+                        throws IllegalArgumentException {
+                validate(startDate, endDate, Optional.empty());
+
+                final Map<YearMonth, Double> daysByMonth = new LinkedHashMap<>();
+                final long start = startDate.toEpochDay();
+                final long end = endDate.toEpochDay();
+
+                if (countBusinessDays(start, end, sortedHolidays) == 0L) {
+                        daysByMonth.put(YearMonth.from(startDate), clamp(days, 1d));
+                        return daysByMonth;
+                }
+
+                double used = 0d;
+                YearMonth month = YearMonth.from(startDate);
+                while (used < days && month.atDay(1).toEpochDay() < end) {
+                        final long monthStart = Math.max(start, month.atDay(1).toEpochDay());
+                        final long monthEnd = Math.min(end, month.plusMonths(1).atDay(1).toEpochDay());
+                        final long count = countBusinessDays(monthStart, monthEnd, sortedHolidays);
+
+                        if (count > 0L) {
+                                daysByMonth.put(month, clamp(days - used, count));
+                                used += count;
+                        }
+
+                        month = month.plusMonths(1);
+                }
+
+                return daysByMonth;
+        }
+
+        /**
+         * Allocation free variant of
+         * {@link #distributeDaysByMonth(LocalDate, LocalDate, double, long[])}
+         * which adds the shares within the given year to the given array.
+         *
+         * @since 1.0.14
+         * @param startDate      start date.
+         * @param endDate        end date.
+         * @param days           number of vacation days.
+         * @param sortedHolidays sorted weekday holidays as epoch days.
+         * @param year           desired year.
+         * @param daysByMonth    array with 12 elements (January at index 0).
+         */
+        public static void addDaysByMonth(final LocalDate startDate, final LocalDate endDate, final double days,
+                        final long[] sortedHolidays, final Year year, final double[] daysByMonth)
+                        throws IllegalArgumentException {
+                validate(startDate, endDate, Optional.empty());
+
+                final long start = startDate.toEpochDay();
+                final long end = endDate.toEpochDay();
+
+                if (countBusinessDays(start, end, sortedHolidays) == 0L) {
+                        if (startDate.getYear() == year.getValue()) {
+                                daysByMonth[startDate.getMonthValue() - 1] += clamp(days, 1d);
+                        }
+                        return;
+                }
+
+                double used = 0d;
+                int currentYear = startDate.getYear();
+                int currentMonth = startDate.getMonthValue();
+                long monthStartDay = LocalDate.of(currentYear, currentMonth, 1).toEpochDay();
+
+                while (used < days && monthStartDay < end && currentYear <= year.getValue()) {
+                        final long nextMonthStartDay = monthStartDay
+                                        + YearMonth.of(currentYear, currentMonth).lengthOfMonth();
+                        final long count = countBusinessDays(Math.max(start, monthStartDay),
+                                        Math.min(end, nextMonthStartDay), sortedHolidays);
+
+                        if (currentYear == year.getValue()) {
+                                daysByMonth[currentMonth - 1] += clamp(days - used, count);
+                        }
+                        used += count;
+
+                        monthStartDay = nextMonthStartDay;
+                        if (++currentMonth > 12) {
+                                currentMonth = 1;
+                                currentYear++;
+                        }
+                }
+        }
+
+        /**
+         * Returns true if the given epoch day is neither a weekend nor a holiday.
+         *
+         * @since 1.0.14
+         * @param epochDay       epoch day.
+         * @param sortedHolidays sorted weekday holidays as epoch days.
+         * @return true if business day.
+         */
+        public static boolean isBusinessDay(final long epochDay, final long[] sortedHolidays) {
+                return !isWeekend(epochDay) && Arrays.binarySearch(sortedHolidays, epochDay) < 0;
+        }
 
-                return businessDays.size();
+        private static boolean isWeekend(final long epochDay) {
+                // Monday based index: 5 = Saturday, 6 = Sunday
+                return Math.floorMod(epochDay - MONDAY_EPOCH_DAY, 7L) >= DayOfWeek.SATURDAY.ordinal();
+        }
+
+        /**
+         * Number of weekdays (Monday to Friday) before given epoch day, relative
+         * to {@link #MONDAY_EPOCH_DAY}.
+         */
+        private static long weekdaysBefore(final long epochDay) {
+                final long days = epochDay - MONDAY_EPOCH_DAY;
+                return Math.floorDiv(days, 7L) * 5L + Math.min(Math.floorMod(days, 7L), 5L);
+        }
+
+        /**
+         * Index of the first element which is not smaller than the given key.
+         */
+        private static int lowerBound(final long[] sorted, final long key) {
+                int low = 0;
+                int high = sorted.length;
+                while (low < high) {
+                        final int mid = (low + high) >>> 1;
+                        if (sorted[mid] < key) {
+                                low = mid + 1;
+                        } else {
+                                high = mid;
+                        }
+                }
+                return low;
+        }
+
+        private static double clamp(final double value, final double max) {
+                return Math.max(0d, Math.min(max, value));
+        }
+
+        private static void validate(final LocalDate startDate, final LocalDate endDate,
+                        final Optional<List<LocalDate>> holidays) throws IllegalArgumentException {
+                if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+                        throw new IllegalArgumentException(
+                                        "Invalid method argument(s) to countBusinessDaysBetween (" + startDate
+                                                        + "," + endDate + "," + holidays + ")");
+                }
         }
 
         private DateCalculator() {
@@ -1,11 +1,10 @@
 package com.iperka.vacations.api.helpers;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.iperka.vacations.api.VacationsApiApplication;
 
 import org.springframework.data.domain.Page;
@@ -23,31 +22,35 @@ import lombok.extern.slf4j.Slf4j;
  * version will be null if the API will be ran on the local computer. (Must be
  * packaged as jar in order to function)
  * 
+ * The version is resolved once per JVM and the hostname once at startup by
+ * {@link HostIdentity}, the error list is only allocated if an error gets
+ * added and the envelope is written in a single pass by
+ * {@link GenericResponseSerializer}.
+ * 
  * TODO: Add deprecation warning.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.2
  * @since 1.0.0
  */
 @Slf4j
 @Data
+@JsonSerialize(using = GenericResponseSerializer.class)
 public class GenericResponse<T> {
-    private String version = "v" + VacationsApiApplication.class.getPackage().getImplementationVersion();
-    private String host = getHostname();
+    private static final String VERSION = "v" + VacationsApiApplication.class.getPackage().getImplementationVersion();
+    private static volatile String defaultHost = HostIdentity.UNKNOWN;
+
+    private String version = VERSION;
+    private String host = defaultHost;
     private HttpStatus status;
     private String message;
-    private final Date timestamp = new Date();
+    private final long timestamp = System.currentTimeMillis();
     private T data;
     private Metadata metadata;
-    private List<APIError> errors = new ArrayList<>();
-
-    private static String getHostname() {
-        try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (final UnknownHostException e) {
-            log.error("Unable to determine hostname.", e);
-            return "unknown";
-        }
+    private List<APIError> errors;
+
+    static void setDefaultHost(final String host) {
+        defaultHost = host;
     }
 
     public GenericResponse(final HttpStatus status, final String message, final String version, final T data,
@@ -89,6 +92,16 @@ public class GenericResponse<T> {
         return response;
     }
 
+    public static <T> GenericResponse<List<T>> fromCursorPage(final HttpStatus status, final CursorPage<T> page,
+            final String query) {
+        final GenericResponse<List<T>> response = new GenericResponse<>(status);
+
+        response.data = page.getContent();
+        response.metadata = new Metadata(page, query);
+
+        return response;
+    }
+
     public static <T> GenericResponse<T> notFound(final String message) {
         final GenericResponse<T> response = new GenericResponse<>(HttpStatus.NOT_FOUND);
 
@@ -109,7 +122,10 @@ public class GenericResponse<T> {
             this.message = status.getReasonPhrase();
         }
 
-        log.debug("Status: {}; Message: {}; Errors: {}", this.getStatus(), this.getMessage(), this.getErrors().size());
+        if (log.isDebugEnabled()) {
+            log.debug("Status: {}; Message: {}; Errors: {}", this.getStatus(), this.getMessage(),
+                    this.getErrors().size());
+        }
         return ResponseEntity.status(status).body(this);
     }
 
@@ -149,7 +165,7 @@ public class GenericResponse<T> {
 
     @Schema(description = "Response generation time.", example = "1639640722592", required = true)
     public long getTimestamp() {
-        return timestamp.getTime();
+        return timestamp;
     }
 
     @Schema(description = "Response data.", required = true)
@@ -159,6 +175,6 @@ public class GenericResponse<T> {
 
     @Schema(description = "Array of error objects containing more information about errors.", example = "[]", required = true)
     public List<APIError> getErrors() {
-        return errors;
+        return errors == null ? Collections.emptyList() : errors;
     }
 }
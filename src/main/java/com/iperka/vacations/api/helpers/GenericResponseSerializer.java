@@ -0,0 +1,46 @@
+package com.iperka.vacations.api.helpers;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes the {@link GenericResponse} envelope in a single pass, without
+ * introspecting its bean properties for every response. Field names and
+ * order are the same as with the default bean serializer, data, metadata
+ * and errors are written with the serializers configured on the mapper.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class GenericResponseSerializer extends StdSerializer<GenericResponse<?>> {
+    private static final long serialVersionUID = 1L;
+
+    public GenericResponseSerializer() {
+        super(GenericResponse.class, false);
+    }
+
+    @Override
+    public void serialize(final GenericResponse<?> response, final JsonGenerator generator,
+            final SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response);
+        generator.writeStringField("version", response.getVersion());
+        generator.writeStringField("host", response.getHost());
+        generator.writeNumberField("status", response.getStatus());
+        generator.writeStringField("message", response.getMessage());
+        generator.writeNumberField("timestamp", response.getTimestamp());
+        provider.defaultSerializeField("data", response.getData(), generator);
+        provider.defaultSerializeField("metadata", response.getMetadata(), generator);
+
+        generator.writeArrayFieldStart("errors");
+        for (final APIError error : response.getErrors()) {
+            provider.defaultSerializeValue(error, generator);
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+}
@@ -1,27 +1,41 @@
 package com.iperka.vacations.api.helpers;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Helper controller to serve static files.
  * Even if its bad practice to do it this way...
- * 
+ *
+ * Files are read once at startup and served from memory. Responses carry a
+ * strong ETag and can be cached by clients, conditional requests with a
+ * matching {@code If-None-Match} header are answered with 304.
+ *
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @RestController
 @RequestMapping(value = "/")
 public class HelperController {
+    private static final MediaType IMAGE_ICON = MediaType.parseMediaType("image/x-icon");
 
     @Value("classpath:static/oauth2-redirect.html")
     private Resource oauthRedirect;
@@ -31,20 +45,97 @@ public class HelperController {
 
     @Value("classpath:static/favicon.ico")
     private Resource favicon;
-    
+
+    @Value("${staticResources.maxAgeSeconds}")
+    private long maxAgeSeconds;
+
+    private StaticFile oauthRedirectFile;
+    private StaticFile teaFile;
+    private StaticFile faviconFile;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        this.oauthRedirectFile = StaticFile.of(oauthRedirect);
+        this.teaFile = StaticFile.of(tea);
+        this.faviconFile = StaticFile.of(favicon);
+    }
+
     @GetMapping(value = "/favicon.ico", produces = MediaType.ALL_VALUE)
-    public byte[] getFavicon() throws IOException {
-    return favicon.getInputStream().readAllBytes();
+    public ResponseEntity<byte[]> getFavicon(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        return serve(faviconFile, IMAGE_ICON, ifNoneMatch);
     }
 
     @GetMapping(value = "/oauth2-redirect.html", produces = MediaType.TEXT_HTML_VALUE)
-    public byte[] getOauthRedirect() throws IOException {
-        return oauthRedirect.getInputStream().readAllBytes();
+    public ResponseEntity<byte[]> getOauthRedirect(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        return serve(oauthRedirectFile, MediaType.TEXT_HTML, ifNoneMatch);
     }
 
     @GetMapping(value = "/tea", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseStatus(value = HttpStatus.I_AM_A_TEAPOT)
-    public byte[] getTea() throws IOException {
-        return tea.getInputStream().readAllBytes();
+    public ResponseEntity<byte[]> getTea() {
+        // Not a successful response, so neither conditional nor cacheable.
+        return ResponseEntity.status(HttpStatus.I_AM_A_TEAPOT).contentType(MediaType.TEXT_HTML).body(teaFile.content);
+    }
+
+    private ResponseEntity<byte[]> serve(final StaticFile file, final MediaType mediaType, final String ifNoneMatch) {
+        final CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+
+        if (file.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(file.etag).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok().eTag(file.etag).cacheControl(cacheControl).contentType(mediaType)
+                .body(file.content);
+    }
+
+    /**
+     * Content of a static file with its ETag.
+     */
+    private static final class StaticFile {
+        private final byte[] content;
+        private final String etag;
+
+        private StaticFile(final byte[] content, final String etag) {
+            this.content = content;
+            this.etag = etag;
+        }
+
+        private static StaticFile of(final Resource resource) throws IOException {
+            final byte[] content;
+            try (InputStream inputStream = resource.getInputStream()) {
+                content = inputStream.readAllBytes();
+            }
+
+            try {
+                final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                final StringBuilder etag = new StringBuilder("\"");
+                for (int i = 0; i < 16; i++) {
+                    etag.append(String.format("%02x", digest[i]));
+                }
+                return new StaticFile(content, etag.append('"').toString());
+            } catch (final NoSuchAlgorithmException e) {
+                // SHA-256 is required to be supported by every Java platform.
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Weak comparison as required for {@code If-None-Match}.
+         */
+        private boolean matches(final String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+
+            for (final String candidate : ifNoneMatch.split(",")) {
+                final String value = candidate.trim();
+                if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.iperka.vacations.api.helpers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hostname reported by this instance, e.g. in every {@link GenericResponse}.
+ * Resolved once at startup, so requests never perform a name lookup. Can be
+ * overridden by configuration, which skips the lookup altogether.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class HostIdentity {
+    static final String UNKNOWN = "unknown";
+
+    @Value("${api.hostname}")
+    private String configuredHostname;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String hostname = UNKNOWN;
+
+    @PostConstruct
+    public void initialize() {
+        if (configuredHostname != null && !configuredHostname.isBlank()) {
+            this.hostname = configuredHostname.trim();
+        } else {
+            // @formatter:off
+            final Timer timer = Timer.builder("api.host.resolution")
+                .description("Time taken to resolve the local hostname.")
+                .register(meterRegistry);
+            // @formatter:on
+            this.hostname = timer.record(HostIdentity::resolve);
+        }
+
+        log.info("Serving as host {}.", this.hostname);
+        GenericResponse.setDefaultHost(this.hostname);
+    }
+
+    /**
+     * Returns the hostname of this instance.
+     *
+     * @since 1.0.14
+     * @return Hostname.
+     */
+    public String getHostname() {
+        return hostname;
+    }
+
+    private static String resolve() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            log.error("Unable to determine hostname.", e);
+            return UNKNOWN;
+        }
+    }
+}
@@ -3,19 +3,20 @@ package com.iperka.vacations.api.helpers;
 import org.springframework.data.domain.Page;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 
 /**
  * Metadata object indicating paging and sorting. Simplified Page object
  * provided by Spring Boot.
  * 
+ * Keyset paginated responses don't calculate any totals, instead the cursor
+ * of the next page is provided.
+ * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @Data
-@AllArgsConstructor
 public class Metadata {
     private long totalElements = 0L;
     private long totalPages = 0L;
@@ -24,6 +25,18 @@ public class Metadata {
     private String query = null;
     private boolean firstPage = false;
     private boolean lastPage = false;
+    private String nextCursor = null;
+
+    public Metadata(long totalElements, long totalPages, long page, long perPage, String query, boolean firstPage,
+            boolean lastPage) {
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.page = page;
+        this.perPage = perPage;
+        this.query = query;
+        this.firstPage = firstPage;
+        this.lastPage = lastPage;
+    }
 
     public Metadata(Page<?> page) {
         this.totalElements = page.getTotalElements();
@@ -48,6 +61,18 @@ public class Metadata {
         this.lastPage = page.isLast();
     }
 
+    public Metadata(CursorPage<?> page, String query) {
+        // Totals are unknown for keyset pagination
+        this.totalElements = -1L;
+        this.totalPages = -1L;
+        this.page = -1L;
+        this.perPage = page.getSize();
+        this.query = query;
+        this.firstPage = page.isFirst();
+        this.lastPage = page.isLast();
+        this.nextCursor = page.isLast() ? null : page.getNext().encode();
+    }
+
     @Schema(description = "Total amount of items matching request query.", example = "200", required = true)
     public long getTotalElements() {
         return totalElements;
@@ -82,4 +107,9 @@ public class Metadata {
     public boolean isLastPage() {
         return lastPage;
     }
+
+    @Schema(description = "Cursor of the next page if cursor pagination has been requested. Null on the last page.", example = "MTY0MTkyMTE1MjcyMTo2MWQ0OGQ5NWMzZjI0NTAwNmMyY2FmZjM", required = false)
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
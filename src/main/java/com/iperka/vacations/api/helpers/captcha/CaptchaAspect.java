@@ -20,7 +20,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  * requirements. Checks the header 'captcha-response'.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 @Aspect
@@ -45,7 +45,7 @@ public class CaptchaAspect {
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
                 .getRequest();
         String captchaResponse = request.getHeader(CAPTCHA_HEADER_NAME);
-        boolean isValidCaptcha = captchaValidatorService.validateCaptcha(captchaResponse);
+        boolean isValidCaptcha = captchaValidatorService.validateCaptcha(captchaResponse, request.getRemoteAddr());
         
         if (!isValidCaptcha) {
             CustomException ex = new InvalidCaptchaException();
@@ -4,7 +4,7 @@ package com.iperka.vacations.api.helpers.captcha;
  * Service defining interface for captcha secured resources.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 public interface CaptchaValidatorService {
@@ -13,7 +13,8 @@ public interface CaptchaValidatorService {
      * Validates captcha request.
      * 
      * @param captchaResponse Captcha request.
+     * @param remoteAddress   Address of the client which sent the request.
      * @return true if request is valid.
      */
-    public boolean validateCaptcha(String captchaResponse);
+    public boolean validateCaptcha(String captchaResponse, String remoteAddress);
 }
@@ -1,44 +1,200 @@
 package com.iperka.vacations.api.helpers.captcha;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service defining captcha validation service.
- * 
+ *
+ * Tokens are verified with a shared HTTP client which keeps connections to
+ * the verifier open, requests are bound by strict timeouts. Verdicts of the
+ * verifier are cached for a short time, so retries of a request with an
+ * already verified token don't fail as duplicate. If the verifier can't be
+ * reached the captcha is considered invalid.
+ *
+ * Captcha tokens are meant to be used once. Caching a verdict allows a token
+ * to be used again until the verdict expires, which is the price for
+ * tolerating retries. Verdicts are therefore cached per token and client
+ * address only, and the default time to live is kept to a few seconds. A
+ * longer time to live makes retries after slow failures succeed, but allows
+ * a solved token to be replayed from the same address for longer.
+ *
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.2
  * @since 1.0.0
  */
+@Slf4j
 @Service
 public class CaptchaValidatorServiceImpl implements CaptchaValidatorService {
-    private static final String GOOGLE_RECAPTCHA_ENDPOINT = "https://www.google.com/recaptcha/api/siteverify";
+    private static final String METRIC_NAME = "captcha.verification";
+    private static final String CACHE_NAME = "captcha.verdicts";
+    private static final int HTTP_OK = 200;
 
     @Value("${google.recaptcha.secret}")
     private String recaptchaSecret;
 
+    @Value("${google.recaptcha.verifyUrl}")
+    private String verifyUrl;
+
+    @Value("${google.recaptcha.connectTimeoutMs}")
+    private long connectTimeoutMs;
+
+    @Value("${google.recaptcha.requestTimeoutMs}")
+    private long requestTimeoutMs;
+
+    @Value("${google.recaptcha.verdictCache.ttlSeconds}")
+    private long verdictTtlSeconds;
+
+    @Value("${google.recaptcha.verdictCache.maximumSize}")
+    private long verdictMaximumSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private Cache<String, Boolean> verdicts;
+    private Timer successTimer;
+    private Timer failureTimer;
+    private Timer errorTimer;
+
+    @PostConstruct
+    public void initialize() {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(connectTimeoutMs)).build();
+
+        // @formatter:off
+        this.verdicts = Caffeine.newBuilder()
+            .maximumSize(verdictMaximumSize)
+            .expireAfterWrite(verdictTtlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        // @formatter:on
+        CaffeineCacheMetrics.monitor(meterRegistry, this.verdicts, CACHE_NAME);
+
+        this.successTimer = timer("success");
+        this.failureTimer = timer("failure");
+        this.errorTimer = timer("error");
+    }
+
+    private Timer timer(final String result) {
+        // @formatter:off
+        return Timer.builder(METRIC_NAME)
+            .description("Time taken to verify a captcha token with the verifier.")
+            .tag("result", result)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
     /**
      * Validates captcha request.
-     * 
+     *
      * @param captchaResponse Captcha request.
+     * @param remoteAddress   Address of the client which sent the request.
      * @return true if request is valid.
      */
-    public boolean validateCaptcha(String captchaResponse) {
-        RestTemplate restTemplate = new RestTemplate();
+    public boolean validateCaptcha(String captchaResponse, String remoteAddress) {
+        if (captchaResponse == null || captchaResponse.isBlank()) {
+            return false;
+        }
 
-        MultiValueMap<String, String> requestMap = new LinkedMultiValueMap<>();
-        requestMap.add("secret", recaptchaSecret);
-        requestMap.add("response", captchaResponse);
+        // A verdict only applies to the client which solved the captcha
+        final String digest = digest(captchaResponse + '\n' + remoteAddress);
+        final Boolean cached = this.verdicts.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
 
-        CaptchaResponse apiResponse = restTemplate.postForObject(GOOGLE_RECAPTCHA_ENDPOINT, requestMap,
-                CaptchaResponse.class);
-        if (apiResponse == null) {
+        final Boolean verdict = verify(captchaResponse);
+        if (verdict == null) {
             return false;
         }
 
-        return Boolean.TRUE.equals(apiResponse.getSuccess());
+        this.verdicts.put(digest, verdict);
+        return verdict;
+    }
+
+    /**
+     * Asks the verifier for a verdict.
+     *
+     * @return Verdict or null if the verifier couldn't be asked.
+     */
+    private Boolean verify(final String captchaResponse) {
+        final String body = "secret=" + encode(recaptchaSecret) + "&response=" + encode(captchaResponse);
+
+        // @formatter:off
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(verifyUrl))
+            .timeout(Duration.ofMillis(requestTimeoutMs))
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        // @formatter:on
+
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse<byte[]> response = this.httpClient.send(request,
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != HTTP_OK) {
+                log.warn("Captcha verifier responded with status {}.", response.statusCode());
+                this.errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return null;
+            }
+
+            final CaptchaResponse apiResponse = objectMapper.readValue(response.body(), CaptchaResponse.class);
+            final boolean verdict = Boolean.TRUE.equals(apiResponse.getSuccess());
+            final Timer timer = verdict ? this.successTimer : this.failureTimer;
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verdict;
+        } catch (final IOException e) {
+            log.warn("Could not verify captcha token.", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
+    }
+
+    private static String encode(final String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String digest(final String value) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform.
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,21 @@
+package com.iperka.vacations.api.helpers.exceptions;
+
+import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.CustomException;
+
+/**
+ * Custom exception that will be thrown if a pagination cursor can not be
+ * decoded.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class InvalidCursorException extends Exception implements CustomException {
+    private static final String MESSAGE = "Cursor invalid.";
+    private static final String CAUSE = "Given cursor has not been issued by this API.";
+
+    public APIError toApiError() {
+        return new APIError("InvalidCursor", MESSAGE, CAUSE, "cursor", 400);
+    }
+}
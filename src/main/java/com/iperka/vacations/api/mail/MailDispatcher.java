@@ -0,0 +1,269 @@
+package com.iperka.vacations.api.mail;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the mails of the outbox. Due mails are claimed in batches and
+ * each batch is sent over a single SMTP connection. At most the configured
+ * number of batches is sent concurrently.
+ *
+ * Failed mails are retried with exponential backoff and marked as failed
+ * after the maximum number of attempts. Delivery is at least once: if an
+ * instance stops after sending but before recording it, the mail will be
+ * sent again once its lease has expired. Results are only recorded while
+ * the lease is held, so a mail claimed again by another dispatcher is not
+ * overwritten.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+    private static final String METRIC_PREFIX = "mail.outbox";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    @Value("${mail.outbox.batchSize}")
+    private int batchSize;
+
+    @Value("${mail.outbox.concurrency}")
+    private int concurrency;
+
+    @Value("${mail.outbox.pollIntervalMs}")
+    private long pollIntervalMs;
+
+    @Value("${mail.outbox.leaseSeconds}")
+    private long leaseSeconds;
+
+    @Value("${mail.outbox.maxAttempts}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.initialBackoffSeconds}")
+    private long initialBackoffSeconds;
+
+    @Value("${mail.outbox.maxBackoffSeconds}")
+    private long maxBackoffSeconds;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService senders;
+    private Semaphore permits;
+    private Timer sendTimer;
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.sendTimer = Timer.builder(METRIC_PREFIX + ".send")
+            .description("Time taken to send a batch of mails over one SMTP connection.")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder(METRIC_PREFIX + ".mails")
+            .description("Number of delivery attempts.")
+            .tag("result", "sent")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder(METRIC_PREFIX + ".mails")
+            .description("Number of delivery attempts.")
+            .tag("result", "retried")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".mails")
+            .description("Number of delivery attempts.")
+            .tag("result", "failed")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending", this.pending, AtomicLong::get)
+            .description("Number of mails waiting for delivery.")
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
+    /**
+     * Starts polling the outbox.
+     *
+     * @since 1.0.14
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.permits = new Semaphore(concurrency);
+
+        final AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final Thread thread = new Thread(runnable, "mail-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling and waits for batches being sent. Mails which are still
+     * claimed will be sent again after their lease has expired.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (this.scheduler == null) {
+            return;
+        }
+
+        this.scheduler.shutdownNow();
+        this.senders.shutdown();
+        try {
+            this.senders.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Claims due mails as long as a sender is available. Exceptions will be
+     * logged, the next poll will try again.
+     */
+    private void poll() {
+        try {
+            this.pending.set(outboxMailRepository.countByStatus(MailStatus.PENDING));
+
+            while (this.permits.tryAcquire()) {
+                final List<OutboxMail> batch = outboxMailRepository.claim(batchSize,
+                        TimeUnit.SECONDS.toMillis(leaseSeconds));
+                if (batch.isEmpty()) {
+                    this.permits.release();
+                    return;
+                }
+
+                this.senders.execute(() -> {
+                    try {
+                        dispatch(batch);
+                    } finally {
+                        this.permits.release();
+                    }
+                });
+            }
+        } catch (final Exception e) {
+            log.error("Exception occurred while polling the mail outbox.", e);
+        }
+    }
+
+    /**
+     * Sends the given mails over one SMTP connection and records the result
+     * of each mail.
+     *
+     * @since 1.0.14
+     * @param batch Claimed mails.
+     */
+    public void dispatch(final List<OutboxMail> batch) {
+        final Map<SimpleMailMessage, OutboxMail> mails = new IdentityHashMap<>(batch.size());
+        final Map<OutboxMail, Date> leases = new IdentityHashMap<>(batch.size());
+        for (final OutboxMail mail : batch) {
+            mails.put(mail.toMessage(), mail);
+            leases.put(mail, mail.getNextAttemptAt());
+        }
+
+        final Set<Object> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Exception error = null;
+
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            javaMailSender.send(mails.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (final MailSendException e) {
+            failed.addAll(e.getFailedMessages().isEmpty() ? mails.keySet() : e.getFailedMessages().keySet());
+            error = e;
+        } catch (final MailException e) {
+            failed.addAll(mails.keySet());
+            error = e;
+        } finally {
+            sample.stop(this.sendTimer);
+        }
+
+        if (error != null) {
+            log.warn("Could not send {} of {} mail(s).", failed.size(), batch.size(), error);
+        }
+
+        final Date now = new Date();
+        for (final Map.Entry<SimpleMailMessage, OutboxMail> entry : mails.entrySet()) {
+            final OutboxMail mail = entry.getValue();
+            mail.setAttempts(mail.getAttempts() + 1);
+
+            if (!failed.contains(entry.getKey())) {
+                mail.setStatus(MailStatus.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                this.sentCounter.increment();
+            } else if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(MailStatus.FAILED);
+                mail.setLastError(String.valueOf(error));
+                this.failedCounter.increment();
+                log.error("Giving up on mail {} after {} attempt(s).", mail.getId(), mail.getAttempts());
+            } else {
+                mail.setStatus(MailStatus.PENDING);
+                mail.setNextAttemptAt(new Date(now.getTime() + backoffMillis(mail.getAttempts())));
+                mail.setLastError(String.valueOf(error));
+                this.retriedCounter.increment();
+            }
+        }
+
+        final int written = outboxMailRepository.complete(leases);
+        if (written < batch.size()) {
+            log.warn("Lease of {} mail(s) expired while sending, results have not been recorded.",
+                    batch.size() - written);
+        }
+    }
+
+    /**
+     * Exponential backoff starting at the initial backoff, capped at the
+     * maximum backoff.
+     *
+     * @param attempts Number of attempts so far.
+     * @return Delay until the next attempt.
+     */
+    long backoffMillis(final int attempts) {
+        final long seconds = initialBackoffSeconds << Math.min(attempts - 1, 30);
+        return TimeUnit.SECONDS.toMillis(Math.min(seconds, maxBackoffSeconds));
+    }
+}
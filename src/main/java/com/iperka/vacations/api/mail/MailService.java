@@ -2,12 +2,14 @@ package com.iperka.vacations.api.mail;
 
 import javax.validation.constraints.Email;
 
+import org.springframework.mail.SimpleMailMessage;
+
 /**
  * The {@link com.iperka.vacations.api.mail.MailService}
  * interface defines the basic mail service operations.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 2021-12-31
  */
 public interface MailService {
@@ -15,4 +17,13 @@ public interface MailService {
      * Sends a test message to given address.
      */
     void sendTestMail(@Email String to);
+
+    /**
+     * Queues the given message in the outbox. The message will be sent in
+     * the background and retried on failure.
+     * 
+     * @since 1.0.14
+     * @param message Message to send.
+     */
+    void send(SimpleMailMessage message);
 }
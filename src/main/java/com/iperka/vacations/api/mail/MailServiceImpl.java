@@ -1,24 +1,21 @@
 package com.iperka.vacations.api.mail;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-
 import javax.validation.constraints.Email;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The {@link com.iperka.vacations.api.mail.MailServiceImpl} implements
- * {@link com.iperka.vacations.api.mail.MailService}.
+ * {@link com.iperka.vacations.api.mail.MailService}. Messages are stored in
+ * the outbox and delivered by the {@link MailDispatcher}.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 2021-12-31
  */
 @Service
@@ -31,18 +28,10 @@ public class MailServiceImpl implements MailService {
     private String fromName;
 
     @Autowired
-    private JavaMailSender javaMailSender;
-
-    public static int noOfQuickServiceThreads = 20;
-
-    /**
-     * this statement create a thread pool of twenty threads
-     * here we are assigning send mail task using ScheduledExecutorService.submit();
-     */
-    private final ScheduledExecutorService quickService = Executors.newScheduledThreadPool(noOfQuickServiceThreads);
+    private OutboxMailRepository outboxMailRepository;
 
     /**
-     * Sends a test message to given address. In a separate thread.
+     * Sends a test message to given address. In the background.
      */
     @Override
     public void sendTestMail(@Email final String to) {
@@ -54,16 +43,18 @@ public class MailServiceImpl implements MailService {
         message.setSubject("Vacations Test Mail");
         message.setText("This message has been sent by Vacation API.");
 
-        quickService.submit(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    javaMailSender.send(message);
-                    log.info("Mail sent.");
-                } catch (final Exception e) {
-                    log.error("Exception occur while send a mail: ", e);
-                }
-            }
-        });
+        send(message);
+    }
+
+    /**
+     * Queues the given message in the outbox.
+     * 
+     * @since 1.0.14
+     * @param message Message to send.
+     */
+    @Override
+    public void send(final SimpleMailMessage message) {
+        final OutboxMail mail = outboxMailRepository.save(OutboxMail.of(message));
+        log.debug("Queued mail {}.", mail.getId());
     }
 }
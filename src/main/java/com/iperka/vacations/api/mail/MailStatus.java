@@ -0,0 +1,27 @@
+package com.iperka.vacations.api.mail;
+
+/**
+ * Delivery status of an {@link OutboxMail}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public enum MailStatus {
+    /**
+     * Waiting for the next delivery attempt.
+     */
+    PENDING,
+    /**
+     * Claimed by a dispatcher until the lease expires.
+     */
+    SENDING,
+    /**
+     * Accepted by the SMTP server.
+     */
+    SENT,
+    /**
+     * Given up after the maximum number of attempts.
+     */
+    FAILED
+}
@@ -0,0 +1,98 @@
+package com.iperka.vacations.api.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain text mail template with {@code {{name}}} placeholders. The template
+ * is split into literal and placeholder segments once, rendering only
+ * appends the segments and doesn't parse the template again.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public final class MailTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int length;
+
+    private MailTemplate(final String name, final List<String> literals, final List<String> placeholders) {
+        this.name = name;
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new String[0]);
+        this.length = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compiles the given template source. Trailing line breaks are removed.
+     *
+     * @since 1.0.14
+     * @param name   Template name used in error messages.
+     * @param source Template source.
+     * @return Compiled template.
+     * @throws IllegalArgumentException if a placeholder isn't closed.
+     */
+    public static MailTemplate compile(final String name, final String source) {
+        final String template = source.replaceAll("[\\r\\n]+$", "");
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = template.indexOf(OPEN, position)) >= 0) {
+            final int close = template.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in mail template " + name + ".");
+            }
+
+            literals.add(template.substring(position, open));
+            placeholders.add(template.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        literals.add(template.substring(position));
+
+        return new MailTemplate(name, literals, placeholders);
+    }
+
+    /**
+     * Renders the template with the given values.
+     *
+     * @since 1.0.14
+     * @param values Values by placeholder name.
+     * @return Rendered text.
+     * @throws IllegalArgumentException if a value is missing.
+     */
+    public String render(final Map<String, ?> values) {
+        return renderTo(new StringBuilder(length + 16 * placeholders.length), values).toString();
+    }
+
+    /**
+     * Appends the rendered template to the given builder.
+     *
+     * @since 1.0.14
+     * @param builder Target.
+     * @param values  Values by placeholder name.
+     * @return The given builder.
+     * @throws IllegalArgumentException if a value is missing.
+     */
+    public StringBuilder renderTo(final StringBuilder builder, final Map<String, ?> values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+
+            final Object value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException(
+                        "Missing value " + placeholders[i] + " for mail template " + name + ".");
+            }
+            builder.append(value);
+        }
+
+        return builder.append(literals[placeholders.length]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.iperka.vacations.api.mail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Set of mail templates. All templates in {@code templates/mail} on the
+ * classpath are compiled once at startup, invalid templates prevent the
+ * application from starting.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class MailTemplates {
+    private static final String LOCATION = "classpath*:templates/mail/*.txt";
+    private static final String EXTENSION = ".txt";
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private Map<String, MailTemplate> templates = Map.of();
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        final Map<String, MailTemplate> compiled = new HashMap<>();
+        for (final Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
+                .getResources(LOCATION)) {
+            final String filename = resource.getFilename();
+            final String name = filename.substring(0, filename.length() - EXTENSION.length());
+
+            try (InputStream inputStream = resource.getInputStream()) {
+                compiled.put(name,
+                        MailTemplate.compile(name, StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8)));
+            }
+        }
+
+        this.templates = Map.copyOf(compiled);
+        log.info("Compiled {} mail template(s).", this.templates.size());
+    }
+
+    /**
+     * Returns the template with the given name.
+     *
+     * @since 1.0.14
+     * @param name Template name, i.e. the filename without extension.
+     * @return Compiled template.
+     * @throws IllegalArgumentException if there is no such template.
+     */
+    public MailTemplate get(final String name) {
+        final MailTemplate template = this.templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown mail template " + name + ".");
+        }
+
+        return template;
+    }
+}
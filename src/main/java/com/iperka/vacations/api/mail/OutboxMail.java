@@ -0,0 +1,93 @@
+package com.iperka.vacations.api.mail;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.mail.SimpleMailMessage;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mail waiting in the outbox. Mails are persisted before they are sent, so
+ * they survive restarts and can be retried. Sent mails are removed after
+ * seven days, failed mails are kept for inspection.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "mails")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+})
+public class OutboxMail {
+    @Id
+    private String id;
+
+    private String from;
+    private List<String> to;
+    private String subject;
+    private String text;
+
+    private MailStatus status = MailStatus.PENDING;
+    private int attempts;
+
+    /**
+     * Earliest time of the next attempt. While sending, this is the end of
+     * the lease after which the mail may be claimed again.
+     */
+    private Date nextAttemptAt;
+    private Date createdAt;
+
+    @Indexed(name = "sentAt_ttl", expireAfterSeconds = 604800)
+    private Date sentAt;
+    private String lastError;
+
+    /**
+     * Creates a pending mail from the given message.
+     *
+     * @since 1.0.14
+     * @param message Message to send.
+     * @return Pending mail.
+     */
+    public static OutboxMail of(final SimpleMailMessage message) {
+        final OutboxMail mail = new OutboxMail();
+        final Date now = new Date();
+
+        mail.from = message.getFrom();
+        mail.to = message.getTo() == null ? List.of() : Arrays.asList(message.getTo());
+        mail.subject = message.getSubject();
+        mail.text = message.getText();
+        mail.createdAt = now;
+        mail.nextAttemptAt = now;
+
+        return mail;
+    }
+
+    /**
+     * Creates the message to send.
+     *
+     * @since 1.0.14
+     * @return Message.
+     */
+    public SimpleMailMessage toMessage() {
+        final SimpleMailMessage message = new SimpleMailMessage();
+
+        message.setFrom(from);
+        message.setTo(to.toArray(new String[0]));
+        message.setSubject(subject);
+        message.setText(text);
+        message.setSentDate(createdAt);
+
+        return message;
+    }
+}
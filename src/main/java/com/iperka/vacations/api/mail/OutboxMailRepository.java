@@ -0,0 +1,18 @@
+package com.iperka.vacations.api.mail;
+
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the mail outbox. Extends the
+ * {@link PagingAndSortingRepository} interface for pagination support.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Repository
+public interface OutboxMailRepository
+        extends PagingAndSortingRepository<OutboxMail, String>, OutboxMailRepositoryCustom {
+    public long countByStatus(MailStatus status);
+}
@@ -0,0 +1,38 @@
+package com.iperka.vacations.api.mail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository interface for queries which can not be derived from method
+ * names and are therefore implemented manually.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+public interface OutboxMailRepositoryCustom {
+    /**
+     * Atomically claims up to the given number of due mails, oldest first.
+     * Claimed mails are marked as sending until the lease expires. Mails of
+     * an expired lease, e.g. of a crashed instance, are due again.
+     *
+     * @since 1.0.14
+     * @param limit   Maximum number of mails.
+     * @param leaseMs Lease duration in milliseconds.
+     * @return Claimed mails.
+     */
+    public List<OutboxMail> claim(int limit, long leaseMs);
+
+    /**
+     * Records the result of sent mails. A mail is only written if it is
+     * still claimed with the given lease. Mails whose lease has expired and
+     * which may have been claimed again are left untouched.
+     *
+     * @since 1.0.14
+     * @param leases Mails with the lease they have been claimed with.
+     * @return Number of written mails.
+     */
+    public int complete(Map<OutboxMail, Date> leases);
+}
@@ -0,0 +1,106 @@
+package com.iperka.vacations.api.mail;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Implements the {@link OutboxMailRepositoryCustom} interface using the
+ * {@link MongoTemplate}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+public class OutboxMailRepositoryCustomImpl implements OutboxMailRepositoryCustom {
+    private static final String STATUS = "status";
+    private static final String NEXT_ATTEMPT_AT = "nextAttemptAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Claims due mails one by one using findAndModify, so concurrent
+     * dispatchers never claim the same mail.
+     *
+     * @since 1.0.14
+     * @param limit   Maximum number of mails.
+     * @param leaseMs Lease duration in milliseconds.
+     * @return Claimed mails.
+     */
+    @Override
+    public List<OutboxMail> claim(final int limit, final long leaseMs) {
+        final Date now = new Date();
+
+        // @formatter:off
+        final Query query = new Query(Criteria
+            .where(STATUS).in(MailStatus.PENDING, MailStatus.SENDING)
+            .and(NEXT_ATTEMPT_AT).lte(now)
+        ).with(Sort.by(Direction.ASC, NEXT_ATTEMPT_AT));
+        final Update update = new Update()
+            .set(STATUS, MailStatus.SENDING)
+            .set(NEXT_ATTEMPT_AT, new Date(now.getTime() + leaseMs));
+        // @formatter:on
+
+        final List<OutboxMail> claimed = new ArrayList<>(limit);
+        while (claimed.size() < limit) {
+            final OutboxMail mail = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), OutboxMail.class);
+            if (mail == null) {
+                break;
+            }
+            claimed.add(mail);
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Records the result of sent mails with a single unordered bulk write.
+     * Every update is conditional on the mail still being sent with the
+     * given lease.
+     *
+     * @since 1.0.14
+     * @param leases Mails with the lease they have been claimed with.
+     * @return Number of written mails.
+     */
+    @Override
+    public int complete(final Map<OutboxMail, Date> leases) {
+        if (leases.isEmpty()) {
+            return 0;
+        }
+
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, OutboxMail.class);
+        for (final Map.Entry<OutboxMail, Date> entry : leases.entrySet()) {
+            final OutboxMail mail = entry.getKey();
+
+            // @formatter:off
+            final Query query = new Query(Criteria
+                .where("_id").is(mail.getId())
+                .and(STATUS).is(MailStatus.SENDING)
+                .and(NEXT_ATTEMPT_AT).is(entry.getValue()));
+            final Update update = new Update()
+                .set(STATUS, mail.getStatus())
+                .set(NEXT_ATTEMPT_AT, mail.getNextAttemptAt())
+                .set("attempts", mail.getAttempts())
+                .set("sentAt", mail.getSentAt())
+                .set("lastError", mail.getLastError());
+            // @formatter:on
+            operations.updateOne(query, update);
+        }
+
+        return operations.execute().getMatchedCount();
+    }
+}
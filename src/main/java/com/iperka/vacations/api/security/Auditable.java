@@ -1,7 +1,5 @@
 package com.iperka.vacations.api.security;
 
-import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import javax.persistence.MappedSuperclass;
@@ -20,7 +18,7 @@ import lombok.extern.slf4j.Slf4j;
  * Superclass for auditable service implementations.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.2
  * @since 1.0.0
  */
 @Slf4j
@@ -30,9 +28,9 @@ public abstract class Auditable {
     private AuditService auditService;
 
     /**
-     * Writes audit operation to database. If the operation is
-     * {@link AuditOperation#UPDATE} the objects will get compared and differences
-     * will be evaluated. This method doesn't throw, it will just log unhandled
+     * Writes audit operation to database in the background. If the operation
+     * is {@link AuditOperation#UPDATE} the objects will get compared and
+     * differences will be evaluated. This method doesn't throw, it will just log unhandled
      * exceptions to console.
      * 
      * @since 1.0.0
@@ -64,45 +62,18 @@ public abstract class Auditable {
 
         // Check if operation equals UPDATE and if so compare objects.
         if (operation.toString().equals(AuditOperation.UPDATE.toString())) {
-            Map<String, Map<String, String>> diff = new HashMap<>();
-
-            // Iterate over all getters and compare before with after value. This does not
-            // work for nested values.
-            for (Method m : before.getClass().getMethods()) {
-                if (m.getName().startsWith("get") && m.getParameterTypes().length == 0) {
-                    try {
-                        // Exec getter methods
-                        Object beforeObject = m.invoke(before);
-                        Object afterObject = m.invoke(after);
-
-                        // If one object is null, continue
-                        if (beforeObject == null || afterObject == null) {
-                            continue;
-                        }
-
-                        if (!beforeObject.equals(afterObject)) {
-                            Map<String, String> values = new HashMap<>();
-                            values.put("from", m.invoke(before).toString());
-                            values.put("to", m.invoke(after).toString());
-
-                            // Removes get from getter method and converts to lowercase
-                            diff.put(m.getName().replace("get", "").toLowerCase(), values);
-                        }
-                    } catch (Exception e) {
-                        log.error("Error", e);
-                    }
-
-                }
-            }
+            // Compare getters using the cached plan of the class. Nested values will be
+            // compared property by property.
+            final Map<String, Map<String, String>> diff = DiffPlan.of(before.getClass()).diff(before, after);
 
             // Write to database
             this.auditService
-                    .create(new Audit(after.getClass().getName(), after.getId(), operation, diff, description));
+                    .submit(new Audit(after.getClass().getName(), after.getId(), operation, diff, description));
             return;
         }
 
         // Write to database
         this.auditService
-                .create(new Audit(after.getClass().getName(), after.getId(), operation, null, description));
+                .submit(new Audit(after.getClass().getName(), after.getId(), operation, null, description));
     }
 }
@@ -0,0 +1,132 @@
+package com.iperka.vacations.api.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * {@link JwtDecoder} which remembers successfully decoded and validated
+ * tokens until they expire. Clients reuse their access tokens for a long
+ * time, so the signature of a token only has to be verified once.
+ *
+ * Entries are keyed by the SHA-256 digest of the token. Tokens which fail
+ * to decode or validate are never cached. Entries signed with a key which
+ * has been removed from the JWK set are dropped, see
+ * {@link #invalidateKeys(Collection)}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private static final String CACHE_NAME = "security.jwt.decoder";
+    private static final String KEY_ID = "kid";
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+
+    /**
+     * Creates a caching decoder.
+     *
+     * @param delegate      Decoder which verifies and validates tokens.
+     * @param maximumSize   Maximum number of cached tokens.
+     * @param meterRegistry Registry for cache metrics.
+     */
+    public CachingJwtDecoder(final JwtDecoder delegate, final long maximumSize, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        // @formatter:off
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new Expiry<String, Jwt>() {
+                @Override
+                public long expireAfterCreate(String digest, Jwt jwt, long currentTime) {
+                    return remainingNanos(jwt);
+                }
+
+                @Override
+                public long expireAfterUpdate(String digest, Jwt jwt, long currentTime, long currentDuration) {
+                    return remainingNanos(jwt);
+                }
+
+                @Override
+                public long expireAfterRead(String digest, Jwt jwt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        // @formatter:on
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    @Override
+    public Jwt decode(final String token) throws JwtException {
+        final String digest = digest(token);
+
+        final Jwt cached = this.cache.getIfPresent(digest);
+        if (cached != null && isValid(cached)) {
+            return cached;
+        }
+
+        final Jwt jwt = this.delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            this.cache.put(digest, jwt);
+        }
+
+        return jwt;
+    }
+
+    /**
+     * Removes all tokens signed with one of the given keys.
+     *
+     * @since 1.0.14
+     * @param keyIds Ids of removed keys.
+     */
+    public void invalidateKeys(final Collection<String> keyIds) {
+        this.cache.asMap().values().removeIf(jwt -> keyIds.contains(jwt.getHeaders().get(KEY_ID)));
+    }
+
+    /**
+     * Removes all tokens.
+     *
+     * @since 1.0.14
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    private static boolean isValid(final Jwt jwt) {
+        return Instant.now().isBefore(jwt.getExpiresAt());
+    }
+
+    private static long remainingNanos(final Jwt jwt) {
+        return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+    }
+
+    private static String digest(final String token) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (final NoSuchAlgorithmException e) {
+            // SHA-256 is required to be supported by every Java platform.
+            throw new IllegalStateException(e);
+        }
+    }
+}
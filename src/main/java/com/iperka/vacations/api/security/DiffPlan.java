@@ -0,0 +1,142 @@
+package com.iperka.vacations.api.security;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Precompiled comparison of two objects of the same class used by
+ * {@link Auditable}. The getters of a class will be resolved once and bound
+ * to {@link MethodHandle}s, later comparisons just invoke the handles. Plans
+ * are cached per class.
+ *
+ * Nested objects of this application (e.g. embedded documents) are compared
+ * property by property, their keys are prefixed with the parent property
+ * (e.g. {@code parent.child}).
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Slf4j
+public final class DiffPlan {
+    private static final String GETTER_PREFIX = "get";
+    private static final String APPLICATION_PACKAGE = "com.iperka.vacations.api";
+    private static final int MAX_DEPTH = 4;
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<DiffPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected DiffPlan computeValue(final Class<?> type) {
+            return new DiffPlan(type);
+        }
+    };
+
+    private final Property[] properties;
+
+    private DiffPlan(final Class<?> type) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<Property> list = new ArrayList<>();
+
+        for (Method method : type.getMethods()) {
+            if (!method.getName().startsWith(GETTER_PREFIX) || method.getParameterCount() != 0
+                    || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+
+            try {
+                method.setAccessible(true);
+                final MethodHandle getter = lookup.unreflect(method).asType(GETTER_TYPE);
+
+                // Removes get from getter method and converts to lowercase
+                list.add(new Property(method.getName().replace(GETTER_PREFIX, "").toLowerCase(), getter));
+            } catch (final IllegalAccessException | RuntimeException e) {
+                log.warn("Getter {} of {} can not be audited.", method.getName(), type.getName(), e);
+            }
+        }
+
+        this.properties = list.toArray(new Property[0]);
+    }
+
+    /**
+     * Returns the cached plan for given class.
+     *
+     * @since 1.0.14
+     * @param type Class to compare.
+     * @return Diff plan.
+     */
+    public static DiffPlan of(final Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Compares all properties of given objects. Properties which are null on
+     * either side will be skipped.
+     *
+     * @since 1.0.14
+     * @param before Before update.
+     * @param after  After update.
+     * @return Map of changed properties with from and to values.
+     */
+    public Map<String, Map<String, String>> diff(final Object before, final Object after) {
+        final Map<String, Map<String, String>> diff = new HashMap<>();
+        collect("", before, after, diff, 0);
+        return diff;
+    }
+
+    private void collect(final String prefix, final Object before, final Object after,
+            final Map<String, Map<String, String>> diff, final int depth) {
+        for (Property property : this.properties) {
+            final Object beforeObject;
+            final Object afterObject;
+            try {
+                beforeObject = property.getter.invokeExact(before);
+                afterObject = property.getter.invokeExact(after);
+            } catch (final Throwable e) {
+                log.error("Error", e);
+                continue;
+            }
+
+            // If one object is null or both are equal, continue
+            if (beforeObject == null || afterObject == null || beforeObject.equals(afterObject)) {
+                continue;
+            }
+
+            final Class<?> type = beforeObject.getClass();
+            if (depth < MAX_DEPTH && type == afterObject.getClass() && isNested(type)) {
+                PLANS.get(type).collect(prefix + property.name + ".", beforeObject, afterObject, diff, depth + 1);
+                continue;
+            }
+
+            final Map<String, String> values = new HashMap<>(4);
+            values.put("from", beforeObject.toString());
+            values.put("to", afterObject.toString());
+            diff.put(prefix + property.name, values);
+        }
+    }
+
+    private static boolean isNested(final Class<?> type) {
+        return !type.isEnum() && type.getPackageName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    /**
+     * Name and bound getter of a single property.
+     */
+    private static final class Property {
+        private final String name;
+        private final MethodHandle getter;
+
+        private Property(final String name, final MethodHandle getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+}
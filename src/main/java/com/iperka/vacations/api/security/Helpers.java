@@ -21,6 +21,14 @@ public class Helpers {
     }
 
     public static boolean hasScope(final String scope, final Authentication authentication) {
+        // Scopes of known tokens have been resolved during authentication.
+        if (authentication instanceof ScopedJwtAuthenticationToken) {
+            final Scope known = Scope.fromValue(scope);
+            if (known != null) {
+                return ((ScopedJwtAuthenticationToken) authentication).hasScope(known);
+            }
+        }
+
         return (authentication != null
                 && authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("SCOPE_" + scope)));
     }
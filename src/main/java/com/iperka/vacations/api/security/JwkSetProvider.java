@@ -0,0 +1,211 @@
+package com.iperka.vacations.api.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provides the keys used to verify access tokens. The JWK set is loaded
+ * from an HTTP(S) URL, a file or the classpath and kept in memory.
+ *
+ * Local sets are loaded synchronously at startup. Remote sets are loaded in
+ * the background, so startup doesn't depend on the issuer being reachable.
+ * Both are refreshed periodically. A token with an unknown key id triggers
+ * an immediate reload, at most once per configured interval. If loading
+ * fails the previous set stays in use.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class JwkSetProvider implements JWKSource<SecurityContext> {
+    private static final String METRIC_PREFIX = "security.jwks";
+
+    @Value("${security.jwks.location}")
+    private String location;
+
+    @Value("${security.jwks.refreshIntervalSeconds}")
+    private long refreshIntervalSeconds;
+
+    @Value("${security.jwks.minReloadIntervalSeconds}")
+    private long minReloadIntervalSeconds;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile long lastLoadAttempt;
+    private volatile Consumer<Set<String>> removedKeysListener = removed -> {
+    };
+
+    private ScheduledExecutorService scheduler;
+    private Counter loadSuccessCounter;
+    private Counter loadFailureCounter;
+    private Counter limitedReloadCounter;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.loadSuccessCounter = Counter.builder(METRIC_PREFIX + ".loads")
+            .description("Number of JWK set loads.")
+            .tag("result", "success")
+            .register(meterRegistry);
+        this.loadFailureCounter = Counter.builder(METRIC_PREFIX + ".loads")
+            .description("Number of JWK set loads.")
+            .tag("result", "failure")
+            .register(meterRegistry);
+        this.limitedReloadCounter = Counter.builder(METRIC_PREFIX + ".reloads.limited")
+            .description("Number of unknown key ids which didn't trigger a reload because of the rate limit.")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".keys", this, provider -> provider.jwkSet.getKeys().size())
+            .description("Number of keys in the current JWK set.")
+            .register(meterRegistry);
+        // @formatter:on
+
+        if (!isRemote() && !load()) {
+            throw new IllegalStateException("Could not load JWK set from " + location + ".");
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::load, isRemote() ? 0 : refreshIntervalSeconds,
+                refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Sets the listener which will be called with the ids of keys removed
+     * from the set, e.g. after a key rotation.
+     *
+     * @since 1.0.14
+     * @param removedKeysListener Listener.
+     */
+    public void setRemovedKeysListener(final Consumer<Set<String>> removedKeysListener) {
+        this.removedKeysListener = removedKeysListener;
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) {
+        final List<JWK> keys = jwkSelector.select(this.jwkSet);
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+
+        // Unknown key id, the set might have been rotated. Select again even
+        // if the reload has been limited, a concurrent request or the
+        // background refresh may have loaded the key meanwhile.
+        reloadIfAllowed();
+        return jwkSelector.select(this.jwkSet);
+    }
+
+    /**
+     * Loads the JWK set from the configured location. Exceptions will be
+     * logged and the current set stays in use.
+     *
+     * @since 1.0.14
+     * @return true if loaded.
+     */
+    public synchronized boolean load() {
+        this.lastLoadAttempt = System.currentTimeMillis();
+
+        final JWKSet next;
+        try {
+            next = JWKSet.parse(read()).toPublicJWKSet();
+        } catch (final IOException | ParseException e) {
+            this.loadFailureCounter.increment();
+            log.warn("Could not load JWK set from {}, keeping {} known key(s).", location,
+                    this.jwkSet.getKeys().size(), e);
+            return false;
+        }
+
+        final Set<String> removed = keyIds(this.jwkSet);
+        removed.removeAll(keyIds(next));
+
+        this.jwkSet = next;
+        this.loadSuccessCounter.increment();
+
+        if (!removed.isEmpty()) {
+            log.info("Keys {} have been removed from the JWK set.", removed);
+            this.removedKeysListener.accept(removed);
+        }
+
+        return true;
+    }
+
+    private synchronized boolean reloadIfAllowed() {
+        if (System.currentTimeMillis() - this.lastLoadAttempt < TimeUnit.SECONDS.toMillis(minReloadIntervalSeconds)) {
+            this.limitedReloadCounter.increment();
+            return false;
+        }
+
+        return load();
+    }
+
+    private String read() throws IOException {
+        if (isRemote()) {
+            // @formatter:off
+            return new DefaultResourceRetriever(
+                RemoteJWKSet.DEFAULT_HTTP_CONNECT_TIMEOUT,
+                RemoteJWKSet.DEFAULT_HTTP_READ_TIMEOUT,
+                RemoteJWKSet.DEFAULT_HTTP_SIZE_LIMIT
+            ).retrieveResource(new URL(location)).getContent();
+            // @formatter:on
+        }
+
+        try (InputStream inputStream = resourceLoader.getResource(location).getInputStream()) {
+            return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    private boolean isRemote() {
+        return location.startsWith("https://") || location.startsWith("http://");
+    }
+
+    private static Set<String> keyIds(final JWKSet jwkSet) {
+        return jwkSet.getKeys().stream().map(JWK::getKeyID).collect(Collectors.toCollection(HashSet::new));
+    }
+}
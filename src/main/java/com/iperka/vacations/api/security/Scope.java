@@ -0,0 +1,97 @@
+package com.iperka.vacations.api.security;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The {@link com.iperka.vacations.api.security.Scope} enum lists all scopes
+ * defined in {@link Scopes}. Scopes of an authentication are stored as
+ * {@link EnumSet}, so checking a scope doesn't need to search the
+ * authorities.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public enum Scope {
+    VACATIONS_READ(Scopes.VACATIONS_READ, Scopes.SCOPE_VACATIONS_READ),
+    VACATIONS_WRITE(Scopes.VACATIONS_WRITE, Scopes.SCOPE_VACATIONS_WRITE),
+    VACATIONS_ALL_READ(Scopes.VACATIONS_ALL_READ, Scopes.SCOPE_VACATIONS_ALL_READ),
+    VACATIONS_ALL_WRITE(Scopes.VACATIONS_ALL_WRITE, Scopes.SCOPE_VACATIONS_ALL_WRITE),
+    USERS_READ(Scopes.USERS_READ, Scopes.SCOPE_USERS_READ),
+    USERS_WRITE(Scopes.USERS_WRITE, Scopes.SCOPE_USERS_WRITE),
+    USERS_ALL_READ(Scopes.USERS_ALL_READ, Scopes.SCOPE_USERS_ALL_READ),
+    USERS_ALL_WRITE(Scopes.USERS_ALL_WRITE, Scopes.SCOPE_USERS_ALL_WRITE),
+    AUDITS_ALL_READ(Scopes.AUDITS_ALL_READ, Scopes.SCOPE_AUDITS_ALL_READ),
+    AUDITS_ALL_WRITE(Scopes.AUDITS_ALL_WRITE, Scopes.SCOPE_AUDITS_ALL_WRITE);
+
+    private static final Map<String, Scope> BY_VALUE = new HashMap<>();
+    private static final Map<String, Scope> BY_AUTHORITY = new HashMap<>();
+
+    static {
+        for (final Scope scope : values()) {
+            BY_VALUE.put(scope.value, scope);
+            BY_AUTHORITY.put(scope.authority, scope);
+        }
+    }
+
+    private final String value;
+    private final String authority;
+
+    Scope(final String value, final String authority) {
+        this.value = value;
+        this.authority = authority;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    /**
+     * Returns the scope with given value, e.g. {@code vacations:read}.
+     *
+     * @param value Scope value.
+     * @return Scope or null if unknown.
+     */
+    public static Scope fromValue(final String value) {
+        return BY_VALUE.get(value);
+    }
+
+    /**
+     * Returns the scope with given authority, e.g.
+     * {@code SCOPE_vacations:read}.
+     *
+     * @param authority Authority.
+     * @return Scope or null if unknown.
+     */
+    public static Scope fromAuthority(final String authority) {
+        return BY_AUTHORITY.get(authority);
+    }
+
+    /**
+     * Returns the known scopes contained in given authorities.
+     *
+     * @param authorities Granted authorities.
+     * @return Set of scopes.
+     */
+    public static Set<Scope> fromAuthorities(final Collection<? extends GrantedAuthority> authorities) {
+        final Set<Scope> scopes = EnumSet.noneOf(Scope.class);
+        for (final GrantedAuthority grantedAuthority : authorities) {
+            final Scope scope = fromAuthority(grantedAuthority.getAuthority());
+            if (scope != null) {
+                scopes.add(scope);
+            }
+        }
+
+        return scopes;
+    }
+}
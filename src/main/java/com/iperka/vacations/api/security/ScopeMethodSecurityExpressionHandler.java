@@ -0,0 +1,28 @@
+package com.iperka.vacations.api.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression handler which uses the
+ * {@link ScopeSecurityExpressionRoot} for scoped authentications.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class ScopeMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(final Authentication authentication,
+            final MethodInvocation invocation) {
+        final MethodSecurityExpressionOperations root = super.createSecurityExpressionRoot(authentication,
+                invocation);
+        if (authentication instanceof ScopedJwtAuthenticationToken) {
+            return new ScopeSecurityExpressionRoot(root, (ScopedJwtAuthenticationToken) authentication);
+        }
+
+        return root;
+    }
+}
@@ -0,0 +1,136 @@
+package com.iperka.vacations.api.security;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Expression root for method security which answers
+ * {@code hasAuthority} and {@code hasAnyAuthority} for known scopes from the
+ * scopes of the {@link ScopedJwtAuthenticationToken}. All other expressions
+ * are evaluated by the default root.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class ScopeSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+    private final MethodSecurityExpressionOperations delegate;
+    private final ScopedJwtAuthenticationToken authentication;
+
+    public ScopeSecurityExpressionRoot(final MethodSecurityExpressionOperations delegate,
+            final ScopedJwtAuthenticationToken authentication) {
+        this.delegate = delegate;
+        this.authentication = authentication;
+    }
+
+    @Override
+    public boolean hasAuthority(final String authority) {
+        final Scope scope = Scope.fromAuthority(authority);
+        if (scope == null) {
+            return delegate.hasAuthority(authority);
+        }
+
+        return authentication.hasScope(scope);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(final String... authorities) {
+        for (final String authority : authorities) {
+            if (hasAuthority(authority)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    @Override
+    public boolean hasRole(final String role) {
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(final String... roles) {
+        return delegate.hasAnyRole(roles);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(final Object target, final Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(final Object targetId, final String targetType, final Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(final Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(final Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+
+    /**
+     * Exposes the principal like the default root, e.g. for
+     * {@code principal.subject}.
+     *
+     * @return Principal of the authentication.
+     */
+    public Object getPrincipal() {
+        return authentication.getPrincipal();
+    }
+}
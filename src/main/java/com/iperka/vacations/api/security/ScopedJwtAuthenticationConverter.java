@@ -0,0 +1,23 @@
+package com.iperka.vacations.api.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Converts validated tokens into {@link ScopedJwtAuthenticationToken}s. The
+ * authorities are the same as created by the default converter.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class ScopedJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(final Jwt jwt) {
+        return new ScopedJwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt));
+    }
+}
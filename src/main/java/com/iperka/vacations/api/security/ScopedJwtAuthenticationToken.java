@@ -0,0 +1,48 @@
+package com.iperka.vacations.api.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * {@link JwtAuthenticationToken} which additionally holds the known scopes of
+ * the token as {@link EnumSet}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class ScopedJwtAuthenticationToken extends JwtAuthenticationToken {
+    private static final long serialVersionUID = 1L;
+
+    private final Set<Scope> scopes;
+
+    public ScopedJwtAuthenticationToken(final Jwt jwt, final Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, authorities);
+        this.scopes = Collections.unmodifiableSet(Scope.fromAuthorities(authorities));
+    }
+
+    /**
+     * Returns the known scopes granted by the token.
+     *
+     * @return Unmodifiable set of scopes.
+     */
+    public Set<Scope> getScopes() {
+        return scopes;
+    }
+
+    /**
+     * Returns true if the token grants given scope.
+     *
+     * @param scope Scope.
+     * @return true if granted.
+     */
+    public boolean hasScope(final Scope scope) {
+        return scopes.contains(scope);
+    }
+}
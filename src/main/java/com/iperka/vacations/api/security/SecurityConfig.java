@@ -2,10 +2,16 @@ package com.iperka.vacations.api.security;
 
 import java.util.List;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -15,19 +21,28 @@ import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtDecoders;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * The {@link com.iperka.vacations.api.security.SecurityConfig} class defines
  * the security configuration for each route. It uses the Auth0 SDK for
  * validating given JWT's.
  * 
  * <h2>Changes</h2>
+ * <h3>v1.0.14</h3>
+ * <ul>
+ * <li>Validated tokens are cached until they expire.</li>
+ * <li>Signing keys are provided by the {@link JwkSetProvider}, no OIDC
+ * discovery at startup.</li>
+ * <li>Scopes are resolved once per authentication, see
+ * {@link ScopedJwtAuthenticationToken}.</li>
+ * </ul>
  * <h3>v1.0.13</h3>
  * <ul>
  * <li>Friendship concept has been removed.</li>
@@ -36,7 +51,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
  * <hr />
  * 
  * @author Michael Beutler
- * @version 1.0.4
+ * @version 1.0.5
  * @since 1.0.0
  */
 @Configuration
@@ -54,6 +69,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuer;
 
+    @Value("${security.jwtCache.maximumSize}")
+    private long jwtCacheMaximumSize;
+
     @Override
     public void configure(HttpSecurity http) throws Exception {
         /*
@@ -106,7 +124,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .and().oauth2ResourceServer()
             .authenticationEntryPoint(new CustomOAuth2AuthenticationEntryPoint())
             .accessDeniedHandler(new CustomOAuth2AccessDeniedHandler())
-            .jwt();
+            .jwt().jwtAuthenticationConverter(new ScopedJwtAuthenticationConverter());
         // @formatter:on
 
         http.headers().frameOptions().disable();
@@ -130,9 +148,34 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         return source;
     }
 
+    /**
+     * Evaluates scope checks of method security against the scopes of the
+     * {@link ScopedJwtAuthenticationToken}.
+     *
+     * @return Expression handler.
+     */
     @Bean
-    JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder jwtDecoder = (NimbusJwtDecoder) JwtDecoders.fromOidcIssuerLocation(issuer);
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new ScopeMethodSecurityExpressionHandler();
+    }
+
+    /**
+     * Decoder for access tokens. The signing keys are provided by the
+     * {@link JwkSetProvider}, validated tokens are cached until they expire.
+     * No network calls are made while creating the decoder.
+     *
+     * @param meterRegistry  Registry for cache metrics.
+     * @param jwkSetProvider Source of signing keys.
+     * @return Caching decoder.
+     */
+    @Bean
+    JwtDecoder jwtDecoder(final MeterRegistry meterRegistry, final JwkSetProvider jwkSetProvider) {
+        // Same processor as built by NimbusJwtDecoder, claims are validated below.
+        final DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetProvider));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
 
         OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(audience);
         OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(issuer);
@@ -140,7 +183,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         jwtDecoder.setJwtValidator(withAudience);
 
-        return jwtDecoder;
+        final CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, jwtCacheMaximumSize,
+                meterRegistry);
+        jwkSetProvider.setRemovedKeysListener(cachingJwtDecoder::invalidateKeys);
+
+        return cachingJwtDecoder;
     }
 
 }
\ No newline at end of file
@@ -10,6 +10,8 @@ import com.iperka.vacations.api.helpers.GenericFields;
 import com.iperka.vacations.api.helpers.Ownable;
 
 import org.hibernate.validator.constraints.Length;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -21,8 +23,11 @@ import lombok.EqualsAndHashCode;
  * the structure of a basic user. This object is only used for friendship
  * suggestions.
  * 
+ * Email hash, phone hash and owner are unique, inserting a duplicate will be
+ * rejected by the database.
+ * 
  * @author Michael Beutler
- * @version 1.0.1
+ * @version 1.0.2
  * @since 1.0.9
  */
 @Entity
@@ -32,6 +37,11 @@ import lombok.EqualsAndHashCode;
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Document(collection = "users")
+@CompoundIndexes({
+        @CompoundIndex(name = "emailHash", def = "{'emailHash': 1}", unique = true),
+        @CompoundIndex(name = "phoneHash", def = "{'phoneHash': 1}", unique = true),
+        @CompoundIndex(name = "owner", def = "{'owner': 1}", unique = true)
+})
 public class User extends GenericFields implements Ownable {
     @Column(nullable = false, length = 500)
     @Length(min = 25, max = 500)
@@ -1,10 +1,13 @@
 package com.iperka.vacations.api.users;
 
-
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.validation.Valid;
 
-import com.auth0.json.mgmt.users.User;
 import com.iperka.vacations.api.config.OpenApiConfig;
 import com.iperka.vacations.api.helpers.GenericResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.BadRequestResponse;
@@ -16,14 +19,17 @@ import com.iperka.vacations.api.helpers.openapi.responses.UnauthorizedResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.UpdatedResponse;
 import com.iperka.vacations.api.security.Helpers;
 import com.iperka.vacations.api.security.Scopes;
-import com.iperka.vacations.api.users.auth0.ManagementService;
 import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
+import com.iperka.vacations.api.users.dto.ContactDiscoveryDTO;
 import com.iperka.vacations.api.users.dto.SimpleUserDTO;
+import com.iperka.vacations.api.users.dto.UserBatchRequestDTO;
 import com.iperka.vacations.api.users.dto.UserDTO;
+import com.iperka.vacations.api.users.exceptions.DiscoveryBatchTooLargeException;
 import com.iperka.vacations.api.users.exceptions.EmailAndOrPhoneAlreadyConnectedException;
 import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -48,7 +54,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
  * class defines the structure of a basic users route.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.3
  * @since 1.0.9
  */
 @RestController
@@ -56,11 +62,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Users", description = "Endpoints for managing users.")
 public class UserController {
     @Autowired
-    private ManagementService managementService;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private UserService userService;
 
+    @Value("${users.discovery.maxBatchSize}")
+    private int discoveryMaxBatchSize;
+
     @GetMapping(value = "/{userId}")
     // @formatter:off
     @Operation(
@@ -90,17 +99,8 @@ public class UserController {
         final GenericResponse<SimpleUserDTO> response = new GenericResponse<>(HttpStatus.OK);
 
         try {
-            User user = managementService.getUserById(userId.replace('_', '|')).orElseThrow();
-
             // Set data object
-            if (user.getUsername() == null) {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getEmail().split("@")[0],
-                                user.getPicture()));
-            } else {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getUsername(), user.getPicture()));
-            }
+            response.setData(userProfileCache.getProfile(userId));
 
             return response.build();
         } catch (final UserNotFoundException e) {
@@ -139,17 +139,8 @@ public class UserController {
         final GenericResponse<SimpleUserDTO> response = new GenericResponse<>(HttpStatus.OK);
 
         try {
-            User user = managementService.getUserById(userService.findByEmailHash(emailHash).getOwner()).orElseThrow();
-
             // Set data object
-            if (user.getUsername() == null) {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getEmail().split("@")[0],
-                                user.getPicture()));
-            } else {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getUsername(), user.getPicture()));
-            }
+            response.setData(userProfileCache.getProfile(userService.findByEmailHash(emailHash).getOwner()));
 
             return response.build();
         } catch (final UserNotFoundException e) {
@@ -188,17 +179,8 @@ public class UserController {
         final GenericResponse<SimpleUserDTO> response = new GenericResponse<>(HttpStatus.OK);
 
         try {
-            User user = managementService.getUserById(userService.findByPhoneHash(phoneHash).getOwner()).orElseThrow();
-
             // Set data object
-            if (user.getUsername() == null) {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getEmail().split("@")[0],
-                                user.getPicture()));
-            } else {
-                response.setData(
-                        new SimpleUserDTO(user.getId(), user.getName(), user.getUsername(), user.getPicture()));
-            }
+            response.setData(userProfileCache.getProfile(userService.findByPhoneHash(phoneHash).getOwner()));
 
             return response.build();
         } catch (final UserNotFoundException e) {
@@ -208,6 +190,149 @@ public class UserController {
         }
     }
 
+    /**
+     * Resolves many users with a single request. Hashes are resolved with a
+     * single query, profiles which are not cached yet will be loaded in
+     * parallel. Unknown values are not part of the result.
+     * 
+     * @since 1.0.14
+     * @param batchRequest Requested user ids and hashes.
+     * @return A generic Response with profiles mapped by the requested value.
+     */
+    @PostMapping(value = "/batch")
+    // @formatter:off
+    @Operation(
+        summary = "Finds users with given ids, email hashes or phone hashes.", 
+        description = "Returns the profiles mapped by the requested value. Unknown values are omitted. Each list accepts up to " + UserBatchRequestDTO.MAX_SIZE + " values.", 
+        security = {
+            @SecurityRequirement(
+                name = OpenApiConfig.OAUTH2, 
+                scopes = {Scopes.USERS_READ, Scopes.USERS_WRITE,Scopes.USERS_ALL_READ, Scopes.USERS_ALL_WRITE}
+            )
+        }, 
+        tags = {"Users"}, 
+        responses = {
+            @ApiResponse(description = "OK", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UserBatchResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
+        }
+    )
+    // @formatter:on
+    public ResponseEntity<GenericResponse<Map<String, SimpleUserDTO>>> getUsers(
+    // @formatter:off
+        @Valid @RequestBody(required = true, content = @Content(schema =  @Schema(implementation = UserBatchRequestDTO.class))) @org.springframework.web.bind.annotation.RequestBody final UserBatchRequestDTO batchRequest
+    // @formatter:on
+    ) {
+        final GenericResponse<Map<String, SimpleUserDTO>> response = new GenericResponse<>(HttpStatus.OK);
+
+        try {
+            // Set data object
+            response.setData(resolve(valuesOf(batchRequest.getIds()), valuesOf(batchRequest.getEmailHashes()),
+                    valuesOf(batchRequest.getPhoneHashes())));
+
+            return response.build();
+        } catch (final NotConfiguredException e) {
+            return response.fromError(HttpStatus.NOT_ACCEPTABLE, e.toApiError()).build();
+        }
+    }
+
+    /**
+     * Contact discovery for address books. All hashes are resolved with a
+     * single query, only known users are returned.
+     * 
+     * @since 1.0.14
+     * @param contactDiscovery Hashed emails and phone numbers.
+     * @return A generic Response with profiles mapped by the requested hash.
+     */
+    @PostMapping(value = "/discover")
+    // @formatter:off
+    @Operation(
+        summary = "Finds users with given email or phone hashes.", 
+        description = "Returns the profiles of known users mapped by the requested hash. The number of hashes per request is limited.", 
+        security = {
+            @SecurityRequirement(
+                name = OpenApiConfig.OAUTH2, 
+                scopes = {Scopes.USERS_READ, Scopes.USERS_WRITE,Scopes.USERS_ALL_READ, Scopes.USERS_ALL_WRITE}
+            )
+        }, 
+        tags = {"Users"}, 
+        responses = {
+            @ApiResponse(description = "OK", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UserBatchResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
+        }
+    )
+    // @formatter:on
+    public ResponseEntity<GenericResponse<Map<String, SimpleUserDTO>>> discover(
+    // @formatter:off
+        @Valid @RequestBody(required = true, content = @Content(schema =  @Schema(implementation = ContactDiscoveryDTO.class))) @org.springframework.web.bind.annotation.RequestBody final ContactDiscoveryDTO contactDiscovery
+    // @formatter:on
+    ) {
+        final GenericResponse<Map<String, SimpleUserDTO>> response = new GenericResponse<>(HttpStatus.OK);
+
+        final List<String> emailHashes = valuesOf(contactDiscovery.getEmailHashes());
+        final List<String> phoneHashes = valuesOf(contactDiscovery.getPhoneHashes());
+        if (emailHashes.size() + phoneHashes.size() > discoveryMaxBatchSize) {
+            return response.fromError(HttpStatus.BAD_REQUEST,
+                    new DiscoveryBatchTooLargeException(discoveryMaxBatchSize).toApiError()).build();
+        }
+
+        try {
+            // Set data object
+            response.setData(resolve(List.of(), emailHashes, phoneHashes));
+
+            return response.build();
+        } catch (final NotConfiguredException e) {
+            return response.fromError(HttpStatus.NOT_ACCEPTABLE, e.toApiError()).build();
+        }
+    }
+
+    /**
+     * Resolves given user ids and hashes to profiles, mapped by the requested
+     * value. Unknown values are omitted.
+     */
+    private Map<String, SimpleUserDTO> resolve(final List<String> ids, final List<String> emailHashes,
+            final List<String> phoneHashes) throws NotConfiguredException {
+        final Map<String, String> emailOwners = new HashMap<>();
+        final Map<String, String> phoneOwners = new HashMap<>();
+        for (final User user : this.userService.findAllByHashes(emailHashes, phoneHashes)) {
+            emailOwners.put(user.getEmailHash(), user.getOwner());
+            phoneOwners.put(user.getPhoneHash(), user.getOwner());
+        }
+
+        final List<String> userIds = new ArrayList<>(ids);
+        userIds.addAll(emailOwners.values());
+        final Map<String, SimpleUserDTO> profiles = userProfileCache.getProfiles(userIds);
+
+        final Map<String, SimpleUserDTO> users = new LinkedHashMap<>();
+        for (final String userId : ids) {
+            putIfFound(users, userId, profiles.get(userId));
+        }
+        for (final String hash : emailHashes) {
+            putIfFound(users, hash, profiles.get(emailOwners.get(hash)));
+        }
+        for (final String hash : phoneHashes) {
+            putIfFound(users, hash, profiles.get(phoneOwners.get(hash)));
+        }
+
+        return users;
+    }
+
+    private static List<String> valuesOf(final List<String> values) {
+        return values == null ? List.of() : values;
+    }
+
+    private static void putIfFound(final Map<String, SimpleUserDTO> users, final String key,
+            final SimpleUserDTO user) {
+        if (user != null) {
+            users.put(key, user);
+        }
+    }
+
     /**
      * Index route for /users endpoint. Creates a new User. (if user is
      * authorized).
@@ -336,6 +461,25 @@ public class UserController {
     private final class UserUpdatedResponse extends UpdatedResponse<SimpleUserDTO> {
     };
 
+    /**
+     * Helper class for OpenAPI generation.
+     * 
+     * @author Michael Beutler
+     * @version 1.0.0
+     * @since 1.0.14
+     */
+    private final class UserBatchResponse extends GenericResponse<Map<String, SimpleUserDTO>> {
+
+        /**
+         * Default Constructor required by Java.
+         * 
+         * @param status HTTP Status.
+         */
+        public UserBatchResponse(final HttpStatus status) {
+            super(status);
+        }
+    };
+
     /**
      * Helper class for OpenAPI generation.
      * 
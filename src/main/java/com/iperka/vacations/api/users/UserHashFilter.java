@@ -0,0 +1,295 @@
+package com.iperka.vacations.api.users;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.iperka.vacations.api.helpers.CountingBloomFilter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory filter of all known email and phone hashes. Lookups of hashes
+ * which are definitely unknown can be answered without querying the
+ * database.
+ *
+ * The filter is built from the users collection once the application is
+ * ready and rebuilt periodically. Local changes are applied immediately,
+ * changes of other instances only with the next rebuild. Until then a user
+ * created on another instance would be reported as unknown, therefore the
+ * filter is disabled by default and must only be enabled if a single
+ * instance writes users. Until the first build has finished, and while
+ * disabled, every hash is reported as possibly known.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class UserHashFilter {
+    private static final String METRIC_PREFIX = "users.hash.filter";
+    private static final String EMAIL_PREFIX = "e:";
+    private static final String PHONE_PREFIX = "p:";
+
+    @Value("${users.hashFilter.enabled}")
+    private boolean enabled;
+
+    @Value("${users.hashFilter.expectedInsertions}")
+    private long expectedInsertions;
+
+    @Value("${users.hashFilter.falsePositiveProbability}")
+    private double falsePositiveProbability;
+
+    @Value("${users.hashFilter.rebuildIntervalSeconds}")
+    private long rebuildIntervalSeconds;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private volatile CountingBloomFilter filter;
+    private CountingBloomFilter building;
+
+    private ScheduledExecutorService scheduler;
+    private Counter negativeCounter;
+    private Counter positiveCounter;
+    private Counter falsePositiveCounter;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.negativeCounter = Counter.builder(METRIC_PREFIX + ".checks")
+            .description("Number of hash lookups answered by the filter.")
+            .tag("result", "negative")
+            .register(meterRegistry);
+        this.positiveCounter = Counter.builder(METRIC_PREFIX + ".checks")
+            .description("Number of hash lookups answered by the filter.")
+            .tag("result", "positive")
+            .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder(METRIC_PREFIX + ".false.positives")
+            .description("Number of hashes reported as possibly known but missing in the database.")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".false.positive.rate", this, UserHashFilter::getFalsePositiveRate)
+            .description("Share of unknown hashes which were not rejected by the filter.")
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
+    /**
+     * Builds the filter and schedules the periodic rebuild.
+     *
+     * @since 1.0.14
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("User hash filter is disabled.");
+            return;
+        }
+        log.warn("User hash filter is enabled, users created by other instances are unknown until the next rebuild.");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "user-hash-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the users collection. Changes made during the
+     * rebuild are applied to both filters. Exceptions will be logged, the
+     * current filter stays in use.
+     *
+     * @since 1.0.14
+     */
+    public void rebuild() {
+        final CountingBloomFilter next = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+        synchronized (lock) {
+            this.building = next;
+        }
+
+        final Query query = new Query();
+        query.fields().include("emailHash").include("phoneHash");
+        query.cursorBatchSize(1000);
+
+        long users = 0;
+        try (CloseableIterator<User> iterator = mongoTemplate.stream(query, User.class)) {
+            while (iterator.hasNext()) {
+                final User user = iterator.next();
+                addTo(next, user.getEmailHash(), user.getPhoneHash());
+                users++;
+            }
+        } catch (final Exception e) {
+            log.error("Exception occurred while building the user hash filter.", e);
+            synchronized (lock) {
+                this.building = null;
+            }
+            return;
+        }
+
+        synchronized (lock) {
+            this.filter = next;
+            this.building = null;
+        }
+
+        if (users * 2 > expectedInsertions) {
+            log.warn("User hash filter holds {} hashes but is sized for {}, false positives will increase.",
+                    users * 2, expectedInsertions);
+        }
+        log.debug("Built user hash filter with {} user(s).", users);
+    }
+
+    /**
+     * Returns false if no user with given email hash exists.
+     *
+     * @since 1.0.14
+     * @param emailHash Hash of email.
+     * @return false if unknown, true if possibly known.
+     */
+    public boolean mightContainEmailHash(final String emailHash) {
+        return mightContain(EMAIL_PREFIX + emailHash);
+    }
+
+    /**
+     * Returns false if no user with given phone hash exists.
+     *
+     * @since 1.0.14
+     * @param phoneHash Hash of phone.
+     * @return false if unknown, true if possibly known.
+     */
+    public boolean mightContainPhoneHash(final String phoneHash) {
+        return mightContain(PHONE_PREFIX + phoneHash);
+    }
+
+    /**
+     * Returns the email hashes which might be known.
+     *
+     * @since 1.0.14
+     * @param emailHashes Hashes of emails.
+     * @return Possibly known hashes.
+     */
+    public List<String> filterEmailHashes(final Collection<String> emailHashes) {
+        return emailHashes.stream().filter(this::mightContainEmailHash).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the phone hashes which might be known.
+     *
+     * @since 1.0.14
+     * @param phoneHashes Hashes of phones.
+     * @return Possibly known hashes.
+     */
+    public List<String> filterPhoneHashes(final Collection<String> phoneHashes) {
+        return phoneHashes.stream().filter(this::mightContainPhoneHash).collect(Collectors.toList());
+    }
+
+    /**
+     * Records hashes which passed the filter but don't exist in the database.
+     *
+     * @since 1.0.14
+     * @param count Number of false positives.
+     */
+    public void recordFalsePositives(final long count) {
+        if (count > 0) {
+            this.falsePositiveCounter.increment(count);
+        }
+    }
+
+    /**
+     * Adds the hashes of given user.
+     *
+     * @since 1.0.14
+     * @param user Created user.
+     */
+    public void add(final User user) {
+        synchronized (lock) {
+            if (this.filter != null) {
+                addTo(this.filter, user.getEmailHash(), user.getPhoneHash());
+            }
+            if (this.building != null) {
+                addTo(this.building, user.getEmailHash(), user.getPhoneHash());
+            }
+        }
+    }
+
+    /**
+     * Removes the hashes of given user.
+     *
+     * @since 1.0.14
+     * @param user Deleted user.
+     */
+    public void remove(final User user) {
+        synchronized (lock) {
+            // A filter which is being built may not contain the user yet, removing
+            // it there could remove hashes of other users. The next rebuild drops it.
+            if (this.filter != null) {
+                if (user.getEmailHash() != null) {
+                    this.filter.remove(EMAIL_PREFIX + user.getEmailHash());
+                }
+                if (user.getPhoneHash() != null) {
+                    this.filter.remove(PHONE_PREFIX + user.getPhoneHash());
+                }
+            }
+        }
+    }
+
+    private boolean mightContain(final String value) {
+        final CountingBloomFilter current = this.filter;
+        if (current == null) {
+            return true;
+        }
+
+        if (current.mightContain(value)) {
+            this.positiveCounter.increment();
+            return true;
+        }
+
+        this.negativeCounter.increment();
+        return false;
+    }
+
+    private double getFalsePositiveRate() {
+        final double falsePositives = this.falsePositiveCounter.count();
+        final double unknown = falsePositives + this.negativeCounter.count();
+        return unknown == 0 ? 0 : falsePositives / unknown;
+    }
+
+    private static void addTo(final CountingBloomFilter target, final String emailHash, final String phoneHash) {
+        if (emailHash != null) {
+            target.add(EMAIL_PREFIX + emailHash);
+        }
+        if (phoneHash != null) {
+            target.add(PHONE_PREFIX + phoneHash);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.iperka.vacations.api.users;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.auth0.json.mgmt.users.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.iperka.vacations.api.users.auth0.ManagementService;
+import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
+import com.iperka.vacations.api.users.dto.SimpleUserDTO;
+import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Read-through cache for user profiles provided by
+ * {@link ManagementService#getUserById(String)}. Only the public profile
+ * ({@link SimpleUserDTO}) will be cached, never tokens or identities.
+ *
+ * Entries expire after a fixed time, unknown users are cached for a shorter
+ * time. The cache is limited by the approximate size of its entries.
+ * Concurrent lookups of the same user wait for a single request to Auth0.
+ * Batch lookups load missing users in parallel on a shared pool, which
+ * limits the number of concurrent requests to Auth0.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Component
+public class UserProfileCache {
+    private static final String CACHE_NAME = "users.profiles";
+    private static final int ENTRY_OVERHEAD = 64;
+
+    @Value("${users.profileCache.maximumWeight}")
+    private long maximumWeight;
+
+    @Value("${users.profileCache.ttlSeconds}")
+    private long ttlSeconds;
+
+    @Value("${users.profileCache.negativeTtlSeconds}")
+    private long negativeTtlSeconds;
+
+    @Value("${users.profileCache.batchParallelism}")
+    private int batchParallelism;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, CachedProfile> cache;
+
+    private ExecutorService loader;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((String userId, CachedProfile profile) -> userId.length() + profile.weight())
+            .expireAfter(new Expiry<String, CachedProfile>() {
+                @Override
+                public long expireAfterCreate(String userId, CachedProfile profile, long currentTime) {
+                    return TimeUnit.SECONDS.toNanos(profile.isFound() ? ttlSeconds : negativeTtlSeconds);
+                }
+
+                @Override
+                public long expireAfterUpdate(String userId, CachedProfile profile, long currentTime,
+                        long currentDuration) {
+                    return expireAfterCreate(userId, profile, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String userId, CachedProfile profile, long currentTime,
+                        long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        // @formatter:on
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+
+        // Loader threads run with the security context of the submitting request.
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.loader = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(batchParallelism, runnable -> {
+                    final Thread thread = new Thread(runnable, "user-profile-loader-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.loader.shutdownNow();
+    }
+
+    /**
+     * Returns the profile of given user, loading it from Auth0 on a cache
+     * miss.
+     *
+     * @since 1.0.14
+     * @param userId Auth0 user id.
+     * @return Profile of the user.
+     * @throws UserNotFoundException  if the user doesn't exist.
+     * @throws NotConfiguredException if Auth0 is not available, will not be
+     *                                cached.
+     */
+    @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write', 'SCOPE_users:all:read', 'SCOPE_users:all:write')")
+    public SimpleUserDTO getProfile(final String userId) throws UserNotFoundException, NotConfiguredException {
+        final CachedProfile profile;
+        try {
+            profile = this.cache.get(userId.replace('_', '|'), this::load);
+        } catch (final LoadException e) {
+            throw e.getCause();
+        }
+
+        if (!profile.isFound()) {
+            throw new UserNotFoundException();
+        }
+
+        return profile.getUser();
+    }
+
+    /**
+     * Returns the profiles of given users. Cached profiles are returned
+     * directly, missing ones will be loaded in parallel. Unknown users are
+     * not part of the result.
+     *
+     * @since 1.0.14
+     * @param userIds Auth0 user ids.
+     * @return Profiles mapped by the requested user id.
+     * @throws NotConfiguredException if Auth0 is not available.
+     */
+    @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write', 'SCOPE_users:all:read', 'SCOPE_users:all:write')")
+    public Map<String, SimpleUserDTO> getProfiles(final Collection<String> userIds) throws NotConfiguredException {
+        final Map<String, String> keys = new LinkedHashMap<>();
+        for (final String userId : userIds) {
+            keys.put(userId, userId.replace('_', '|'));
+        }
+
+        final Set<String> uniqueKeys = new LinkedHashSet<>(keys.values());
+        final Map<String, CachedProfile> profiles = new HashMap<>(this.cache.getAllPresent(uniqueKeys));
+
+        // Load missing profiles in parallel, Cache#get keeps lookups of the same user
+        // coalesced with concurrent single lookups.
+        final Map<String, CompletableFuture<CachedProfile>> pending = new LinkedHashMap<>();
+        for (final String key : uniqueKeys) {
+            if (!profiles.containsKey(key)) {
+                pending.put(key, CompletableFuture.supplyAsync(() -> this.cache.get(key, this::load), this.loader));
+            }
+        }
+
+        try {
+            for (final Map.Entry<String, CompletableFuture<CachedProfile>> entry : pending.entrySet()) {
+                profiles.put(entry.getKey(), entry.getValue().join());
+            }
+        } catch (final CompletionException e) {
+            pending.values().forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof LoadException) {
+                throw ((LoadException) e.getCause()).getCause();
+            }
+
+            throw e;
+        }
+
+        final Map<String, SimpleUserDTO> result = new LinkedHashMap<>();
+        keys.forEach((userId, key) -> {
+            final CachedProfile profile = profiles.get(key);
+            if (profile.isFound()) {
+                result.put(userId, profile.getUser());
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Removes given user from the cache.
+     *
+     * @since 1.0.14
+     * @param userId Auth0 user id.
+     */
+    public void invalidate(final String userId) {
+        this.cache.invalidate(userId.replace('_', '|'));
+    }
+
+    private CachedProfile load(final String userId) {
+        try {
+            return new CachedProfile(toSimpleUser(this.managementService.getUserById(userId).orElseThrow()));
+        } catch (final UserNotFoundException e) {
+            return new CachedProfile(null);
+        } catch (final NotConfiguredException e) {
+            throw new LoadException(e);
+        }
+    }
+
+    private static SimpleUserDTO toSimpleUser(final User user) {
+        if (user.getUsername() == null) {
+            return new SimpleUserDTO(user.getId(), user.getName(), user.getEmail().split("@")[0], user.getPicture());
+        }
+
+        return new SimpleUserDTO(user.getId(), user.getName(), user.getUsername(), user.getPicture());
+    }
+
+    /**
+     * Cache entry, the user is null if the user doesn't exist.
+     */
+    private static final class CachedProfile {
+        private final SimpleUserDTO user;
+
+        private CachedProfile(final SimpleUserDTO user) {
+            this.user = user;
+        }
+
+        private SimpleUserDTO getUser() {
+            return user;
+        }
+
+        private boolean isFound() {
+            return user != null;
+        }
+
+        private int weight() {
+            if (user == null) {
+                return ENTRY_OVERHEAD;
+            }
+
+            return ENTRY_OVERHEAD + length(user.getId()) + length(user.getName()) + length(user.getUsername())
+                    + length(user.getPicture());
+        }
+
+        private static int length(final String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    /**
+     * Transports errors which must not be cached out of the loader.
+     */
+    private static final class LoadException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private LoadException(final NotConfiguredException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized NotConfiguredException getCause() {
+            return (NotConfiguredException) super.getCause();
+        }
+    }
+}
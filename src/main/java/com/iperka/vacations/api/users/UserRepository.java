@@ -1,5 +1,7 @@
 package com.iperka.vacations.api.users;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -12,7 +14,7 @@ import org.springframework.stereotype.Repository;
  * {@link com.iperka.users.api.User} model.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.4
  * @since 1.0.9
  */
 @Repository
@@ -44,6 +46,18 @@ public interface UserRepository extends PagingAndSortingRepository<User, String>
      */
     public boolean existsByPhoneHash(String phoneHash);
 
+    /**
+     * Returns true if a user with given email hash, phone hash or owner
+     * already exists. Uses a single query.
+     * 
+     * @since 1.0.14
+     * @param emailHash Hash of email.
+     * @param phoneHash Hash of phone.
+     * @param owner     User id.
+     * @return true if exists.
+     */
+    public boolean existsByEmailHashOrPhoneHashOrOwner(String emailHash, String phoneHash, String owner);
+
     /**
      * Returns user with String.
      * 
@@ -80,6 +94,18 @@ public interface UserRepository extends PagingAndSortingRepository<User, String>
      */
     public Optional<User> findByPhoneHash(String phoneHash);
 
+    /**
+     * Returns users with any of the given email or phone hashes using a
+     * single query.
+     * 
+     * @since 1.0.14
+     * @param emailHashes Hashes of emails.
+     * @param phoneHashes Hashes of phone numbers.
+     * @return List of matching users.
+     */
+    public List<User> findAllByEmailHashInOrPhoneHashIn(Collection<String> emailHashes,
+            Collection<String> phoneHashes);
+
     /**
      * Deletes user with given String.
      * Bare in mind that these method should be explicit to administrative
@@ -97,8 +123,9 @@ public interface UserRepository extends PagingAndSortingRepository<User, String>
      * @since 1.0.9
      * @param id  String of desired object.
      * @param owner Owner user id provided by Auth0.
+     * @return Deleted users.
      */
-    public void deleteByIdAndOwner(String id, String owner);
+    public List<User> deleteByIdAndOwner(String id, String owner);
 
     /**
      * Deletes all users, object must be owned
@@ -106,6 +133,7 @@ public interface UserRepository extends PagingAndSortingRepository<User, String>
      * 
      * @since 1.0.9
      * @param owner Owner user id provided by Auth0.
+     * @return Deleted users.
      */
-    public void deleteAllByOwner(String owner);
+    public List<User> deleteAllByOwner(String owner);
 }
@@ -1,6 +1,8 @@
 package com.iperka.vacations.api.users;
 
 
+import java.util.Collection;
+import java.util.List;
 
 import com.iperka.vacations.api.users.exceptions.EmailAndOrPhoneAlreadyConnectedException;
 import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
@@ -11,7 +13,7 @@ import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
  * {@link com.iperka.users.api.UserRepository} interface.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.3
  * @since 1.0.9
  */
 public interface UserService {
@@ -55,6 +57,17 @@ public interface UserService {
      */
     public abstract User findByPhoneHash(String phoneHash) throws UserNotFoundException;
 
+    /**
+     * Returns users with any of the given email or phone hashes using a
+     * single query.
+     * 
+     * @since 1.0.14
+     * @param emailHashes Hashes of emails.
+     * @param phoneHashes Hashes of phone numbers.
+     * @return List of matching users.
+     */
+    public abstract List<User> findAllByHashes(Collection<String> emailHashes, Collection<String> phoneHashes);
+
     /**
      * Creates and returns user.
      * 
@@ -72,9 +85,12 @@ public interface UserService {
      * @param user  new object.
      * @param owner Owner user id provided by Auth0.
      * @return User updated object.
-     * @throws UserNotFoundException if user could not be found.
+     * @throws UserNotFoundException                  if user could not be found.
+     * @throws EmailAndOrPhoneAlreadyConnectedException if email, phone or owner
+     *                                                  belong to another user.
      */
-    public abstract User updateByOwner(User user, String owner) throws UserNotFoundException;
+    public abstract User updateByOwner(User user, String owner)
+            throws UserNotFoundException, EmailAndOrPhoneAlreadyConnectedException;
 
     /**
      * Deletes user with given String.
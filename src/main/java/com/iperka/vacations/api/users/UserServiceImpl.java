@@ -1,6 +1,11 @@
 package com.iperka.vacations.api.users;
 
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import javax.transaction.Transactional;
 
@@ -10,6 +15,7 @@ import com.iperka.vacations.api.users.exceptions.EmailAndOrPhoneAlreadyConnected
 import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -19,8 +25,12 @@ import org.springframework.stereotype.Service;
  * {@link com.iperka.users.api.UserServiceImpl}
  * interface and provides service layer methods.
  * 
+ * Lookups by email or phone hash are checked against the
+ * {@link UserHashFilter} first, hashes which are definitely unknown don't
+ * reach the database.
+ * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.5
  * @since 1.0.9
  */
 @Service
@@ -28,6 +38,9 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserHashFilter userHashFilter;
+
     /**
      * Returns user with String.
      * 
@@ -67,7 +80,16 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write','SCOPE_users:all:read', 'SCOPE_users:all:write')")
     public User findByEmailHash(String emailHash) throws UserNotFoundException {
-        return userRepository.findByEmailHash(emailHash).orElseThrow(UserNotFoundException::new);
+        if (!userHashFilter.mightContainEmailHash(emailHash)) {
+            throw new UserNotFoundException();
+        }
+
+        final Optional<User> user = userRepository.findByEmailHash(emailHash);
+        if (user.isEmpty()) {
+            userHashFilter.recordFalsePositives(1);
+        }
+
+        return user.orElseThrow(UserNotFoundException::new);
     }
 
     /**
@@ -81,27 +103,75 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write','SCOPE_users:all:read', 'SCOPE_users:all:write')")
     public User findByPhoneHash(String phoneHash) throws UserNotFoundException {
-        return userRepository.findByPhoneHash(phoneHash).orElseThrow(UserNotFoundException::new);
+        if (!userHashFilter.mightContainPhoneHash(phoneHash)) {
+            throw new UserNotFoundException();
+        }
+
+        final Optional<User> user = userRepository.findByPhoneHash(phoneHash);
+        if (user.isEmpty()) {
+            userHashFilter.recordFalsePositives(1);
+        }
+
+        return user.orElseThrow(UserNotFoundException::new);
+    }
+
+    /**
+     * Returns users with any of the given email or phone hashes using a
+     * single query. Hashes which are definitely unknown are not sent to the
+     * database.
+     * 
+     * @since 1.0.14
+     * @param emailHashes Hashes of emails.
+     * @param phoneHashes Hashes of phone numbers.
+     * @return List of matching users.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write','SCOPE_users:all:read', 'SCOPE_users:all:write')")
+    public List<User> findAllByHashes(Collection<String> emailHashes, Collection<String> phoneHashes) {
+        final Set<String> emailCandidates = new HashSet<>(userHashFilter.filterEmailHashes(new HashSet<>(emailHashes)));
+        final Set<String> phoneCandidates = new HashSet<>(userHashFilter.filterPhoneHashes(new HashSet<>(phoneHashes)));
+        if (emailCandidates.isEmpty() && phoneCandidates.isEmpty()) {
+            return List.of();
+        }
+
+        final List<User> users = userRepository.findAllByEmailHashInOrPhoneHashIn(emailCandidates, phoneCandidates);
+
+        long matches = 0;
+        for (final User user : users) {
+            matches += emailCandidates.contains(user.getEmailHash()) ? 1 : 0;
+            matches += phoneCandidates.contains(user.getPhoneHash()) ? 1 : 0;
+        }
+        userHashFilter.recordFalsePositives(emailCandidates.size() + phoneCandidates.size() - matches);
+
+        return users;
     }
 
     /**
-     * Creates and returns user.
+     * Creates and returns user. Uniqueness is guaranteed by the unique
+     * indexes of {@link User}, the pre-check only avoids a failing insert in
+     * the common case.
      * 
      * @since 1.0.9
      * @param user new object.
      * @return User created object.
-     * @throws UserNotFoundException if user could not be found.
+     * @throws EmailAndOrPhoneAlreadyConnectedException if user already exists.
      */
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_users:write', 'SCOPE_users:all:write')")
     public User create(User user) throws EmailAndOrPhoneAlreadyConnectedException {
-        if (userRepository.existsByEmailHash(user.getEmailHash())
-                || userRepository.existsByPhoneHash(user.getPhoneHash())
-                || userRepository.existsByOwner(user.getOwner())) {
+        if (userRepository.existsByEmailHashOrPhoneHashOrOwner(user.getEmailHash(), user.getPhoneHash(),
+                user.getOwner())) {
+            throw new EmailAndOrPhoneAlreadyConnectedException();
+        }
+
+        try {
+            user = userRepository.save(user);
+        } catch (final DuplicateKeyException e) {
+            // Concurrent signup with the same email, phone or owner.
             throw new EmailAndOrPhoneAlreadyConnectedException();
         }
 
-        user = userRepository.save(user);
+        userHashFilter.add(user);
         this.audit(AuditOperation.CREATE, null, user);
         return user;
     }
@@ -113,13 +183,24 @@ public class UserServiceImpl extends Auditable implements UserService {
      * @param user  new object.
      * @param owner Owner user id provided by Auth0.
      * @return User updated object.
-     * @throws UserNotFoundException if user could not be found.
+     * @throws UserNotFoundException                  if user could not be found.
+     * @throws EmailAndOrPhoneAlreadyConnectedException if email, phone or owner
+     *                                                  belong to another user.
      */
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_users:write', 'SCOPE_users:all:write')")
-    public User updateByOwner(User user, String owner) throws UserNotFoundException {
+    public User updateByOwner(User user, String owner)
+            throws UserNotFoundException, EmailAndOrPhoneAlreadyConnectedException {
         User before = this.findById(user.getId());
-        User after = userRepository.save(user);
+        User after;
+        try {
+            after = userRepository.save(user);
+        } catch (final DuplicateKeyException e) {
+            // The unique indexes of User apply to updates as well.
+            throw new EmailAndOrPhoneAlreadyConnectedException();
+        }
+        userHashFilter.add(after);
+        userHashFilter.remove(before);
         this.audit(AuditOperation.UPDATE, before, after);
         return after;
     }
@@ -137,7 +218,9 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Transactional
     @PreAuthorize("hasAnyAuthority('SCOPE_users:write', 'SCOPE_users:all:write')")
     public void deleteById(String id) throws UserNotFoundException {
+        final Optional<User> user = userRepository.findById(id);
         userRepository.deleteById(id);
+        user.ifPresent(userHashFilter::remove);
     }
 
     /**
@@ -153,7 +236,7 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Transactional
     @PreAuthorize("hasAnyAuthority('SCOPE_users:write', 'SCOPE_users:all:write')")
     public void deleteByIdAndOwner(String id, String owner) throws UserNotFoundException {
-        userRepository.deleteByIdAndOwner(id, owner);
+        userRepository.deleteByIdAndOwner(id, owner).forEach(userHashFilter::remove);
     }
 
     /**
@@ -167,7 +250,7 @@ public class UserServiceImpl extends Auditable implements UserService {
     @Transactional
     @PreAuthorize("hasAnyAuthority('SCOPE_users:write', 'SCOPE_users:all:write')")
     public void deleteAllByOwner(String owner) {
-        userRepository.deleteAllByOwner(owner);
+        userRepository.deleteAllByOwner(owner).forEach(userHashFilter::remove);
     }
 
 }
@@ -11,7 +11,7 @@ import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
  * interface defines the basic user operations provided by auth0.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.1
  * @since 1.0.0
  */
 public interface ManagementService {
@@ -38,4 +38,15 @@ public interface ManagementService {
      * @throws UserNotFoundException If user doesn't exists
      */
     public String getGoogleApiAccessToken(final String userId) throws NotConfiguredException, UserNotFoundException;
+
+    /**
+     * Returns the email address of given user provided by Auth0. Used for
+     * notifications, therefore no scopes are required.
+     * 
+     * @since 1.0.14
+     * @param userId Auth0 user id.
+     * @return Optional with email address, empty if the user has none.
+     * @throws UserNotFoundException If user doesn't exists
+     */
+    public Optional<String> getEmail(final String userId) throws NotConfiguredException, UserNotFoundException;
 }
@@ -1,6 +1,13 @@
 package com.iperka.vacations.api.users.auth0;
 
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import com.auth0.client.auth.AuthAPI;
 import com.auth0.client.mgmt.ManagementAPI;
@@ -14,10 +21,14 @@ import com.auth0.net.AuthRequest;
 import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
 import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -27,15 +38,35 @@ import lombok.extern.slf4j.Slf4j;
  * {@link com.iperka.vacations.api.users.auth0.ManagementService} interface
  * and is used to manage the users.
  * 
+ * The management token and the {@link ManagementAPI} client are shared
+ * between requests. The token will be requested on first use and refreshed
+ * in the background before it expires. Refreshes are single-flight, requests
+ * which find an expired token wait for the running refresh instead of
+ * requesting another token. If a token can't be requested while there is
+ * no valid token, requests fail fast for the configured backoff instead of
+ * calling Auth0 one after another.
+ * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.4
  * @since 1.0.0
  */
 @Service
 @Slf4j
 public class ManagementServiceImpl implements ManagementService {
-    private ManagementAPI managementAPI;
-    private TokenHolder holder;
+    private static final String METRIC_PREFIX = "auth0.management.token";
+    private static final long MIN_REFRESH_DELAY_MS = 1000L;
+    private static final int UNAUTHORIZED = 401;
+
+    private volatile ManagementAPI managementAPI;
+    private volatile TokenHolder holder;
+    private volatile long tokenIssuedAt = 0L;
+    private volatile long tokenExpiresAt = 0L;
+    private volatile long failedAt = 0L;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledRefresh;
+    private Counter refreshSuccessCounter;
+    private Counter refreshFailureCounter;
 
     @Value("${auth0.audience}")
     private String audience;
@@ -49,50 +80,186 @@ public class ManagementServiceImpl implements ManagementService {
     @Value("${auth0.clientSecret}")
     private String clientSecret;
 
+    @Value("${auth0.tokenRefreshMarginSeconds}")
+    private long tokenRefreshMarginSeconds;
+
+    @Value("${auth0.tokenFailureBackoffSeconds}")
+    private long tokenFailureBackoffSeconds;
+
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuer;
 
-    private void initialize() throws NotConfiguredException {
-        try {
-            this.managementAPI = new ManagementAPI(domain, getApiToken());
-        } catch (APIException e) {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void initialize() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "auth0-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // @formatter:off
+        this.refreshSuccessCounter = Counter.builder(METRIC_PREFIX + ".refreshes")
+            .description("Number of Auth0 management token refreshes.")
+            .tag("result", "success")
+            .register(meterRegistry);
+        this.refreshFailureCounter = Counter.builder(METRIC_PREFIX + ".refreshes")
+            .description("Number of Auth0 management token refreshes.")
+            .tag("result", "failure")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".age", this, ManagementServiceImpl::getTokenAgeSeconds)
+            .description("Age of the current Auth0 management token.")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns the shared client. Requests a token synchronously if there is
+     * no valid token yet and the last request didn't fail recently.
+     */
+    private ManagementAPI getManagementAPI() throws NotConfiguredException {
+        final long now = System.currentTimeMillis();
+        if (now >= this.tokenExpiresAt && (isBackingOff(now) || !refreshToken(false))) {
             throw new NotConfiguredException();
         }
 
+        return this.managementAPI;
+    }
+
+    /**
+     * Requests a new token unless another thread already did. Proactive
+     * refreshes replace tokens within the refresh margin, otherwise only
+     * expired tokens will be replaced.
+     *
+     * @param proactive True if called by the background refresh.
+     * @return True if a valid token is available.
+     */
+    private synchronized boolean refreshToken(final boolean proactive) {
+        final long now = System.currentTimeMillis();
+        final long refreshAt = proactive ? this.tokenExpiresAt - getRefreshMarginMs() : this.tokenExpiresAt;
+        if (now < refreshAt) {
+            return true;
+        }
+
+        // Another request failed while this one was waiting
+        if (!proactive && isBackingOff(now)) {
+            return false;
+        }
+
+        try {
+            final TokenHolder token = requestToken();
+            final long expiresAt = now + TimeUnit.SECONDS.toMillis(token.getExpiresIn());
+
+            if (this.managementAPI == null) {
+                this.managementAPI = createManagementAPI(token.getAccessToken());
+            } else {
+                this.managementAPI.setApiToken(token.getAccessToken());
+            }
+
+            this.holder = token;
+            this.tokenIssuedAt = now;
+            this.tokenExpiresAt = expiresAt;
+            this.failedAt = 0L;
+            this.refreshSuccessCounter.increment();
+
+            scheduleRefresh(expiresAt - getRefreshMarginMs() - now);
+            return true;
+        } catch (final Auth0Exception e) {
+            log.error("Exception occur while authentication.", e);
+            this.refreshFailureCounter.increment();
+
+            // Retry in background, requests keep using the current token while it is valid
+            scheduleRefresh(getFailureBackoffMs());
+            if (now < this.tokenExpiresAt) {
+                return true;
+            }
+
+            this.failedAt = System.currentTimeMillis();
+            return false;
+        }
+    }
+
+    private boolean isBackingOff(final long now) {
+        return this.failedAt > 0L && now < this.failedAt + getFailureBackoffMs();
+    }
+
+    private long getFailureBackoffMs() {
+        return TimeUnit.SECONDS.toMillis(tokenFailureBackoffSeconds);
     }
 
-    private String getApiToken() throws APIException {
+    ManagementAPI createManagementAPI(final String accessToken) {
+        return new ManagementAPI(domain, accessToken);
+    }
+
+    TokenHolder requestToken() throws Auth0Exception {
         AuthAPI authAPI = new AuthAPI(domain, clientId, clientSecret);
         AuthRequest authRequest = authAPI.requestToken(domain + "api/v2/")
                 .setScope("read:users").setScope("read:current_user").setScope("read:user_idp_tokens");
 
-        try {
-            holder = authRequest.execute();
-        } catch (Auth0Exception e) {
-            log.error("Exception occur while authentication.", e);
-            return "";
+        return authRequest.execute();
+    }
+
+    private void scheduleRefresh(final long delayMs) {
+        if (this.scheduledRefresh != null) {
+            this.scheduledRefresh.cancel(false);
+        }
+
+        this.scheduledRefresh = this.scheduler.schedule(() -> refreshToken(true),
+                Math.max(MIN_REFRESH_DELAY_MS, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refresh margin, at most half of the token lifetime.
+     */
+    private long getRefreshMarginMs() {
+        return Math.min(TimeUnit.SECONDS.toMillis(tokenRefreshMarginSeconds),
+                (this.tokenExpiresAt - this.tokenIssuedAt) / 2L);
+    }
+
+    private double getTokenAgeSeconds() {
+        if (this.holder == null) {
+            return 0d;
         }
 
-        return holder.getAccessToken();
+        return (System.currentTimeMillis() - this.tokenIssuedAt) / 1000d;
     }
 
     @PreAuthorize("hasAnyAuthority('SCOPE_users:read', 'SCOPE_users:write', 'SCOPE_users:all:read', 'SCOPE_users:all:write')")
     public Optional<User> getUserById(final String userId) throws NotConfiguredException, UserNotFoundException {
-        initialize();
+        final ManagementAPI api = getManagementAPI();
         UserFilter userFilter = new UserFilter();
 
         try {
-            return Optional.of(this.managementAPI.users().get(userId.replace('_', '|'), userFilter).execute());
+            return Optional.of(api.users().get(userId.replace('_', '|'), userFilter).execute());
         } catch (Auth0Exception e) {
             if (e.getMessage().contains("400: Bad HTTP authentication header format")) {
                 throw new NotConfiguredException();
             }
 
+            // Token has been revoked, request a new one with the next call
+            if (e instanceof APIException && ((APIException) e).getStatusCode() == UNAUTHORIZED) {
+                this.tokenExpiresAt = 0L;
+                throw new NotConfiguredException();
+            }
+
             log.error("Exception occur while searching user with userId: <" + userId + ">", e);
             throw new UserNotFoundException();
         }
     }
 
+    @Override
+    public Optional<String> getEmail(final String userId) throws NotConfiguredException, UserNotFoundException {
+        return this.getUserById(userId).map(User::getEmail);
+    }
+
     @Override
     public String getGoogleApiAccessToken(String userId) throws NotConfiguredException, UserNotFoundException {
         User user = this.getUserById(userId).orElseThrow();
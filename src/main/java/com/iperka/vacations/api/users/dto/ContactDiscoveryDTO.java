@@ -0,0 +1,31 @@
+package com.iperka.vacations.api.users.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request body of the contact discovery. Contains the hashed emails and
+ * phone numbers of an address book.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactDiscoveryDTO {
+    @ArraySchema(schema = @Schema(description = "Hash of user email.", example = "78e731027d8fd50ed642340b7c9a63b3"))
+    private List<@NotBlank String> emailHashes = new ArrayList<>();
+
+    @ArraySchema(schema = @Schema(description = "Hash of user phone.", example = "78e731027d8fd50ed642340b7c9a63b3"))
+    private List<@NotBlank String> phoneHashes = new ArrayList<>();
+}
@@ -0,0 +1,43 @@
+package com.iperka.vacations.api.users.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request body of the batch user lookup. All lists are optional, the
+ * result is keyed by the requested value.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchRequestDTO {
+    /**
+     * Maximum number of values per list.
+     */
+    public static final int MAX_SIZE = 100;
+
+    @Size(max = MAX_SIZE)
+    @ArraySchema(schema = @Schema(description = "User id.", example = "iperka|2dd222awd2"), maxItems = MAX_SIZE)
+    private List<@NotBlank String> ids = new ArrayList<>();
+
+    @Size(max = MAX_SIZE)
+    @ArraySchema(schema = @Schema(description = "Hash of user email.", example = "78e731027d8fd50ed642340b7c9a63b3"), maxItems = MAX_SIZE)
+    private List<@NotBlank String> emailHashes = new ArrayList<>();
+
+    @Size(max = MAX_SIZE)
+    @ArraySchema(schema = @Schema(description = "Hash of user phone.", example = "78e731027d8fd50ed642340b7c9a63b3"), maxItems = MAX_SIZE)
+    private List<@NotBlank String> phoneHashes = new ArrayList<>();
+}
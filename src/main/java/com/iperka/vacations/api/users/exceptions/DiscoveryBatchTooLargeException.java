@@ -0,0 +1,28 @@
+package com.iperka.vacations.api.users.exceptions;
+
+import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.CustomException;
+
+/**
+ * Custom exception that will be thrown if a contact discovery request
+ * contains more hashes than allowed.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class DiscoveryBatchTooLargeException extends Exception implements CustomException {
+    private static final String MESSAGE = "Too many hashes.";
+    private static final String CAUSE = "A single request may contain at most %d email and phone hashes.";
+
+    private final int maxBatchSize;
+
+    public DiscoveryBatchTooLargeException(final int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public APIError toApiError() {
+        return new APIError("DiscoveryBatchTooLarge", MESSAGE, String.format(CAUSE, maxBatchSize),
+                "emailHashes,phoneHashes", 400);
+    }
+}
@@ -1,6 +1,8 @@
 package com.iperka.vacations.api.vacations;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -10,10 +12,13 @@ import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.iperka.vacations.api.helpers.GenericFields;
 import com.iperka.vacations.api.helpers.Ownable;
 
 import org.hibernate.validator.constraints.Length;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -30,7 +35,7 @@ import net.fortuna.ical4j.model.property.Version;
  * the structure of a basic vacation.
  * 
  * @author Michael Beutler
- * @version 1.0.1
+ * @version 1.0.3
  * @since 1.0.0
  */
 @Entity
@@ -40,6 +45,15 @@ import net.fortuna.ical4j.model.property.Version;
 @Data
 @EqualsAndHashCode(callSuper=false)
 @Document(collection = "vacations")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt", def = "{'createdAt': 1}"),
+        @CompoundIndex(name = "owner_createdAt", def = "{'owner': 1, 'createdAt': 1}"),
+        @CompoundIndex(name = "startDate_id", def = "{'startDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "owner_startDate_id", def = "{'owner': 1, 'startDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "months_year", def = "{'months.year': 1}"),
+        @CompoundIndex(name = "owner_months_year", def = "{'owner': 1, 'months.year': 1}"),
+        @CompoundIndex(name = "owner_endDate_startDate", def = "{'owner': 1, 'endDate': 1, 'startDate': 1}")
+})
 public class Vacation extends GenericFields implements Ownable {
     /**
      * Unique string used for naming the vacation.
@@ -100,6 +114,13 @@ public class Vacation extends GenericFields implements Ownable {
         return this.type.toString().toLowerCase();
     }
 
+    /**
+     * Vacation days split by month. Will be calculated on create and update.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private List<VacationMonth> months = new ArrayList<>();
+
     public String toICal() {
         // Create calendar object
         Calendar calendar = new Calendar();
@@ -0,0 +1,40 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationCalendarService}
+ * interface defines the methods to maintain and query the
+ * {@link VacationOccupancy} bitmaps of the vacation owners.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public interface VacationCalendarService {
+    /**
+     * Returns the absent owners for every day of the given range. Owners are
+     * absent on days covered by one of their requested or accepted vacations.
+     *
+     * @since 1.0.14
+     * @param owners Owner user ids provided by Auth0.
+     * @param from   First day of the range.
+     * @param to     Last day of the range.
+     * @return Absent owners by day, every day of the range is present.
+     */
+    public abstract Map<LocalDate, List<String>> findAbsentOwnersByDay(Collection<String> owners, LocalDate from,
+            LocalDate to);
+
+    /**
+     * Rebuilds the occupancies of the given owner for the given years. Must be
+     * called after vacations of the owner have been written.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @param years Affected years.
+     */
+    public abstract void refresh(String owner, Collection<Integer> years);
+}
@@ -0,0 +1,209 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationCalendarServiceImpl}
+ * class implements the {@link VacationCalendarService} interface.
+ *
+ * Occupancies are rebuilt from the vacations of the owner after every write.
+ * Missing occupancies (e.g. of vacations written before occupancies existed)
+ * are built on first read and inserted only, so they never replace an
+ * occupancy which has been rebuilt by a write in the meantime.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Slf4j
+@Service
+public class VacationCalendarServiceImpl implements VacationCalendarService {
+    private static final String METRIC_NAME = "vacations.occupancy.builds";
+
+    @Autowired
+    private VacationRepository vacationRepository;
+
+    @Autowired
+    private VacationOccupancyRepository vacationOccupancyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter writeCounter;
+    private Counter readCounter;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.writeCounter = Counter.builder(METRIC_NAME)
+            .description("Number of occupancies built from vacations.")
+            .tag("trigger", "write")
+            .register(meterRegistry);
+        this.readCounter = Counter.builder(METRIC_NAME)
+            .description("Number of occupancies built from vacations.")
+            .tag("trigger", "read")
+            .register(meterRegistry);
+        // @formatter:on
+    }
+
+    /**
+     * Returns the absent owners for every day of the given range. The
+     * occupancies of all owners are fetched at once by id, only occupied days
+     * are visited.
+     *
+     * @since 1.0.14
+     * @param owners Owner user ids provided by Auth0.
+     * @param from   First day of the range.
+     * @param to     Last day of the range.
+     * @return Absent owners by day, every day of the range is present.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public Map<LocalDate, List<String>> findAbsentOwnersByDay(Collection<String> owners, LocalDate from,
+            LocalDate to) {
+        final List<Integer> years = VacationOccupancy.years(from, to);
+        final Map<String, VacationOccupancy> occupancies = findOrBuild(owners, years);
+
+        final Map<LocalDate, List<String>> absences = new LinkedHashMap<>();
+        final List<List<String>> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            final List<String> absent = new ArrayList<>();
+            absences.put(day, absent);
+            days.add(absent);
+        }
+
+        final long firstEpochDay = from.toEpochDay();
+        for (String owner : owners) {
+            for (int year : years) {
+                final VacationOccupancy occupancy = occupancies.get(VacationOccupancy.id(owner, year));
+                final int first = year == from.getYear() ? from.getDayOfYear() : 1;
+                final int last = year == to.getYear() ? to.getDayOfYear() : LocalDate.of(year, 12, 31).getDayOfYear();
+                occupancy.forEachOccupied(first, last, dayOfYear -> days
+                        .get((int) (LocalDate.ofYearDay(year, dayOfYear).toEpochDay() - firstEpochDay)).add(owner));
+            }
+        }
+
+        return absences;
+    }
+
+    /**
+     * Rebuilds the occupancies of the given owner for the given years. This
+     * method doesn't throw, it will just log exceptions, the vacation has
+     * already been written at this point.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @param years Affected years.
+     */
+    @Override
+    public void refresh(String owner, Collection<Integer> years) {
+        if (owner == null || years.isEmpty()) {
+            return;
+        }
+
+        try {
+            final Collection<VacationOccupancy> occupancies = build(List.of(owner), years).values();
+            vacationOccupancyRepository.saveAll(occupancies);
+            this.writeCounter.increment(occupancies.size());
+        } catch (RuntimeException e) {
+            log.error("Exception occurred while rebuilding occupancies of {} for {}.", owner, years, e);
+        }
+    }
+
+    /**
+     * Fetches the occupancies of the given owners and years. Missing
+     * occupancies are built and inserted.
+     */
+    private Map<String, VacationOccupancy> findOrBuild(final Collection<String> owners,
+            final Collection<Integer> years) {
+        final List<String> ids = new ArrayList<>(owners.size() * years.size());
+        for (String owner : owners) {
+            for (int year : years) {
+                ids.add(VacationOccupancy.id(owner, year));
+            }
+        }
+
+        final Map<String, VacationOccupancy> occupancies = new HashMap<>();
+        vacationOccupancyRepository.findAllById(ids)
+                .forEach(occupancy -> occupancies.put(occupancy.getId(), occupancy));
+        if (occupancies.size() == ids.size()) {
+            return occupancies;
+        }
+
+        final Set<String> missingOwners = new LinkedHashSet<>();
+        for (String owner : owners) {
+            for (int year : years) {
+                if (!occupancies.containsKey(VacationOccupancy.id(owner, year))) {
+                    missingOwners.add(owner);
+                }
+            }
+        }
+
+        for (VacationOccupancy occupancy : build(missingOwners, years).values()) {
+            if (occupancies.containsKey(occupancy.getId())) {
+                continue;
+            }
+
+            occupancies.put(occupancy.getId(), occupancy);
+            try {
+                vacationOccupancyRepository.insert(occupancy);
+                this.readCounter.increment();
+            } catch (DuplicateKeyException e) {
+                log.debug("Occupancy {} has been built concurrently.", occupancy.getId());
+            }
+        }
+
+        return occupancies;
+    }
+
+    /**
+     * Builds the occupancies of the given owners and years from the
+     * requested and accepted vacations with a single query.
+     */
+    private Map<String, VacationOccupancy> build(final Collection<String> owners, final Collection<Integer> years) {
+        final Map<String, VacationOccupancy> occupancies = new HashMap<>();
+        for (String owner : owners) {
+            for (int year : years) {
+                final VacationOccupancy occupancy = VacationOccupancy.of(owner, year);
+                occupancies.put(occupancy.getId(), occupancy);
+            }
+        }
+
+        final int firstYear = years.stream().mapToInt(Integer::intValue).min().orElseThrow();
+        final int lastYear = years.stream().mapToInt(Integer::intValue).max().orElseThrow();
+        final Date from = Date.from(LocalDate.of(firstYear, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        final Date to = Date.from(LocalDate.of(lastYear + 1, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        for (Vacation vacation : vacationRepository.findAllOverlapping(owners, from, to, VacationStatus.OCCUPYING)) {
+            for (int year : years) {
+                final VacationOccupancy occupancy = occupancies.get(VacationOccupancy.id(vacation.getOwner(), year));
+                if (occupancy != null) {
+                    occupancy.occupy(vacation);
+                }
+            }
+        }
+
+        return occupancies;
+    }
+}
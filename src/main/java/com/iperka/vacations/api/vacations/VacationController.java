@@ -1,17 +1,27 @@
 package com.iperka.vacations.api.vacations;
 
+import java.time.LocalDate;
 import java.time.Year;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Pattern;
 
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,10 +36,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.iperka.vacations.api.config.OpenApiConfig;
 import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 import com.iperka.vacations.api.helpers.GenericResponse;
+import com.iperka.vacations.api.helpers.exceptions.InvalidCursorException;
 import com.iperka.vacations.api.helpers.openapi.responses.BadRequestResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.ConflictResponse;
 import com.iperka.vacations.api.helpers.openapi.responses.CreatedResponse;
@@ -41,7 +55,11 @@ import com.iperka.vacations.api.helpers.openapi.responses.UpdatedResponse;
 import com.iperka.vacations.api.security.Helpers;
 import com.iperka.vacations.api.security.Scopes;
 import com.iperka.vacations.api.vacations.dto.VacationDTO;
+import com.iperka.vacations.api.vacations.exceptions.AbsenceQueryTooLargeException;
+import com.iperka.vacations.api.vacations.exceptions.CalendarRangeTooLargeException;
+import com.iperka.vacations.api.vacations.exceptions.VacationInvalidDateRangeException;
 import com.iperka.vacations.api.vacations.exceptions.VacationNotFoundException;
+import com.iperka.vacations.api.vacations.exceptions.VacationOverlapException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -65,7 +83,7 @@ import lombok.extern.slf4j.Slf4j;
  * <hr />
  * 
  * @author Michael Beutler
- * @version 1.0.1
+ * @version 1.0.5
  * @since 1.0.0
  */
 @Slf4j
@@ -78,13 +96,31 @@ public class VacationController {
     @Autowired
     private VacationService vacationService;
 
+    @Autowired
+    private VacationExporter vacationExporter;
+
+    @Autowired
+    private VacationCalendarService vacationCalendarService;
+
+    @Value("${vacations.absences.maxOwners}")
+    private int absencesMaxOwners;
+
+    @Value("${vacations.calendar.maxOwners}")
+    private int calendarMaxOwners;
+
+    @Value("${vacations.calendar.maxDays}")
+    private int calendarMaxDays;
+
     /**
      * Index route for /vacations endpoint. Returns all vacations (if user is
-     * authorized).
+     * authorized). If the cursor parameter is present, keyset pagination
+     * ordered by start date will be used instead of pages.
      * 
      * @since 1.0.0
      * @param authentication Will be provided by Spring Security.
      * @param pageable       Adds built in pagination.
+     * @param cursor         Cursor of the previous page, empty for the first
+     *                       page.
      * @return A generic Response with a list of all vacations as data property.
      */
     @GetMapping
@@ -102,6 +138,7 @@ public class VacationController {
         tags = {"Vacations"}, 
         responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = VacationListResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
             @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
             @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
@@ -112,7 +149,8 @@ public class VacationController {
     // @formatter:off
         final Authentication authentication,
         @ParameterObject @PageableDefault(size = 20, sort = "createdAt") final Pageable pageable,
-        @RequestParam(required = false) @Parameter(description = "Filter vacations by owner.") final String owner
+        @RequestParam(required = false) @Parameter(description = "Filter vacations by owner.") final String owner,
+        @RequestParam(required = false) @Parameter(description = "Enables cursor pagination ordered by start date. Pass an empty value for the first page and metadata.nextCursor afterwards.") final String cursor
      // @formatter:on
     ) {
         final String userId = Helpers.getUserId(authentication);
@@ -123,6 +161,28 @@ public class VacationController {
             query = String.format("owner=*%s*", owner);
         }
 
+        // Use keyset pagination if cursor is set (skips count query)
+        if (cursor != null) {
+            final Cursor after;
+            try {
+                after = Cursor.decode(cursor);
+            } catch (final InvalidCursorException e) {
+                return new GenericResponse<List<Vacation>>(HttpStatus.BAD_REQUEST)
+                        .fromError(HttpStatus.BAD_REQUEST, e.toApiError()).build();
+            }
+
+            CursorPage<Vacation> cursorPage;
+            if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !StringUtils.hasText(owner)) {
+                cursorPage = this.vacationService.findAllAfter(after, pageable.getPageSize());
+            } else if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && StringUtils.hasText(owner)) {
+                cursorPage = this.vacationService.findAllByOwnerAfter(after, pageable.getPageSize(), owner);
+            } else {
+                cursorPage = this.vacationService.findAllByOwnerAfter(after, pageable.getPageSize(), userId);
+            }
+
+            return GenericResponse.<Vacation>fromCursorPage(HttpStatus.OK, cursorPage, query).build();
+        }
+
         Page<Vacation> page;
         // Check if authenticated user has been granted vacations:all:read
         if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !StringUtils.hasText(owner)) {
@@ -136,6 +196,72 @@ public class VacationController {
         return GenericResponse.<Vacation>fromPage(HttpStatus.OK, page, query).build();
     }
 
+    /**
+     * Export route for /vacations endpoint. Streams all vacations (if user is
+     * authorized) from a database cursor directly to the response, either as
+     * newline delimited JSON or as CSV.
+     * 
+     * @since 1.0.14
+     * @param authentication Will be provided by Spring Security.
+     * @param owner          Optional owner.
+     * @param format         Export format (ndjson or csv).
+     * @return Streaming response body.
+     */
+    @GetMapping(value = "/export", produces = { MediaType.APPLICATION_JSON_VALUE, VacationExporter.NDJSON_VALUE, VacationExporter.CSV_VALUE })
+    // @formatter:off
+    @Operation(
+        summary = "Exports all vacations.", 
+        description = "Streams all vacations owned by authenticated user as newline delimited JSON or CSV. Users with vacations:all:read will receive all vacations.", 
+        security = {
+            @SecurityRequirement(
+                name = OpenApiConfig.OAUTH2,
+                scopes = {Scopes.VACATIONS_READ, Scopes.VACATIONS_WRITE, Scopes.VACATIONS_ALL_READ, Scopes.VACATIONS_ALL_WRITE}
+            )
+        }, 
+        tags = {"Vacations"}, 
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {@Content(mediaType = VacationExporter.NDJSON_VALUE), @Content(mediaType = VacationExporter.CSV_VALUE)}),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
+        }
+    )
+    // @formatter:on
+    public ResponseEntity<StreamingResponseBody> export(
+    // @formatter:off
+        final Authentication authentication,
+        @RequestParam(required = false) @Parameter(description = "Filter vacations by owner.") final String owner,
+        @RequestParam(defaultValue = "ndjson") @Pattern(regexp = "ndjson|csv") @Parameter(description = "Export format (ndjson or csv).") final String format
+     // @formatter:on
+    ) {
+        final String userId = Helpers.getUserId(authentication);
+
+        // Cursor will be opened here so access is checked before streaming
+        CloseableIterator<Vacation> vacations;
+        if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !StringUtils.hasText(owner)) {
+            vacations = this.vacationService.streamAll();
+        } else if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && StringUtils.hasText(owner)) {
+            vacations = this.vacationService.streamAllByOwner(owner);
+        } else {
+            vacations = this.vacationService.streamAllByOwner(userId);
+        }
+
+        final boolean csv = "csv".equals(format);
+        final StreamingResponseBody body = outputStream -> {
+            try (CloseableIterator<Vacation> iterator = vacations) {
+                final long count = csv ? this.vacationExporter.writeCsv(iterator, outputStream)
+                        : this.vacationExporter.writeJsonLines(iterator, outputStream);
+                log.info("Exported {} vacation(s) as {}.", count, format);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? VacationExporter.CSV_VALUE : VacationExporter.NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vacations." + format + "\"")
+                .body(body);
+    }
+
     /**
      * Returns an overview array for given year. This allows for charts and
      * better vacation distribution visualizations.
@@ -176,15 +302,18 @@ public class VacationController {
         final String userId = Helpers.getUserId(authentication);
         final GenericResponse<double[]> response = new GenericResponse<>(HttpStatus.OK);
 
-        List<Vacation> vacations;
+        // Days are summed by the database, so all vacations of the year are respected
+        double[] daysCountByMonth;
         // Check if authenticated user has been granted vacations:all:read
         if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !StringUtils.hasText(owner)) {
-            vacations = this.vacationService.findAll(PageRequest.of(0, 100)).toList();
+            daysCountByMonth = this.vacationService.getDaysCountByMonth(year);
+        } else if (Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && StringUtils.hasText(owner)) {
+            daysCountByMonth = this.vacationService.getDaysCountByMonthAndOwner(year, owner);
         } else {
-            vacations = this.vacationService.findAllByOwner(PageRequest.of(0, 100), userId).toList();
+            daysCountByMonth = this.vacationService.getDaysCountByMonthAndOwner(year, userId);
         }
 
-        response.setData(this.vacationService.getDaysCountByMonth(vacations, year));
+        response.setData(daysCountByMonth);
 
         return response.build();
     }
@@ -256,6 +385,148 @@ public class VacationController {
         return response.build();
     }
 
+    /**
+     * Returns the requested and accepted vacations overlapping the given date
+     * range for many owners at once, grouped by owner. Owners which are not
+     * absent are omitted.
+     * 
+     * @since 1.0.14
+     * @param authentication Will be provided by Spring Security.
+     * @param owners         Optional owners, defaults to authenticated user.
+     * @param from           First day of the range.
+     * @param to             Last day of the range.
+     * @return Vacations by owner.
+     */
+    @GetMapping(value = "/absences")
+    // @formatter:off
+    @Operation(
+        summary = "Finds absent owners.", 
+        description = "Finds requested and accepted vacations of the given owners (or authenticated user) overlapping the given date range.", 
+        security = {
+            @SecurityRequirement(
+                name = OpenApiConfig.OAUTH2,
+                scopes = {Scopes.VACATIONS_READ, Scopes.VACATIONS_WRITE, Scopes.VACATIONS_ALL_READ, Scopes.VACATIONS_ALL_WRITE}
+            )
+        }, 
+        tags = {"Vacations"}, 
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = VacationAbsencesResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
+        }
+    )
+    // @formatter:on
+    public ResponseEntity<GenericResponse<Map<String, List<Vacation>>>> findAbsences(
+    // @formatter:off
+        final Authentication authentication,
+        @RequestParam(required = false) @Parameter(description = "Owners to look up, other owners than the authenticated user require advanced scopes.") final List<String> owners,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "First day of the range.", example = "2022-07-01") final LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Last day of the range.", example = "2022-07-31") final LocalDate to
+     // @formatter:on
+    ) {
+        final String userId = Helpers.getUserId(authentication);
+        final GenericResponse<Map<String, List<Vacation>>> response = new GenericResponse<>(HttpStatus.OK);
+
+        if (from.isAfter(to)) {
+            return response.fromError(HttpStatus.BAD_REQUEST, new VacationInvalidDateRangeException().toApiError())
+                    .build();
+        }
+
+        final Set<String> ids = owners == null || owners.isEmpty() ? Set.of(userId) : new LinkedHashSet<>(owners);
+        if (ids.size() > absencesMaxOwners) {
+            return response.fromError(HttpStatus.BAD_REQUEST,
+                    new AbsenceQueryTooLargeException(absencesMaxOwners).toApiError()).build();
+        }
+
+        // Check if authenticated user has been granted vacations:all:read
+        if (!Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !Set.of(userId).equals(ids)) {
+            return response
+                    .fromError(HttpStatus.FORBIDDEN, new APIError("OAuthException",
+                            "The request requires higher privileges than provided by the access token.",
+                            "The authenticated user has not been granted the required scope(s).", null, 403))
+                    .build();
+        }
+
+        // The last day is included, vacations may start at any time of it
+        response.setData(this.vacationService.findAbsences(ids, toDate(from), toDate(to.plusDays(1))));
+
+        return response.build();
+    }
+
+    /**
+     * Returns the absent owners for every day of the given date range. This
+     * allows for team calendars without expanding vacations client side.
+     * 
+     * @since 1.0.14
+     * @param authentication Will be provided by Spring Security.
+     * @param owners         Optional owners, defaults to authenticated user.
+     * @param from           First day of the range.
+     * @param to             Last day of the range.
+     * @return Absent owners by day.
+     */
+    @GetMapping(value = "/calendar")
+    // @formatter:off
+    @Operation(
+        summary = "Finds absent owners by day.", 
+        description = "Finds the owners (or authenticated user) with a requested or accepted vacation for every day of the given date range.", 
+        security = {
+            @SecurityRequirement(
+                name = OpenApiConfig.OAUTH2,
+                scopes = {Scopes.VACATIONS_READ, Scopes.VACATIONS_WRITE, Scopes.VACATIONS_ALL_READ, Scopes.VACATIONS_ALL_WRITE}
+            )
+        }, 
+        tags = {"Vacations"}, 
+        responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = VacationCalendarResponse.class))),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = BadRequestResponse.class))),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = UnauthorizedResponse.class))),
+            @ApiResponse(description = "Forbidden", responseCode = "403", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = ForbiddenResponse.class))),
+            @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content(mediaType = OpenApiConfig.APPLICATION_JSON, schema = @Schema(implementation = InternalServerErrorResponse.class)))
+        }
+    )
+    // @formatter:on
+    public ResponseEntity<GenericResponse<Map<LocalDate, List<String>>>> findCalendar(
+    // @formatter:off
+        final Authentication authentication,
+        @RequestParam(required = false) @Parameter(description = "Owners to look up, other owners than the authenticated user require advanced scopes.") final List<String> owners,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "First day of the range.", example = "2022-07-01") final LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Last day of the range.", example = "2022-07-31") final LocalDate to
+     // @formatter:on
+    ) {
+        final String userId = Helpers.getUserId(authentication);
+        final GenericResponse<Map<LocalDate, List<String>>> response = new GenericResponse<>(HttpStatus.OK);
+
+        if (from.isAfter(to)) {
+            return response.fromError(HttpStatus.BAD_REQUEST, new VacationInvalidDateRangeException().toApiError())
+                    .build();
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= calendarMaxDays) {
+            return response.fromError(HttpStatus.BAD_REQUEST,
+                    new CalendarRangeTooLargeException(calendarMaxDays).toApiError()).build();
+        }
+
+        final Set<String> ids = owners == null || owners.isEmpty() ? Set.of(userId) : new LinkedHashSet<>(owners);
+        if (ids.size() > calendarMaxOwners) {
+            return response.fromError(HttpStatus.BAD_REQUEST,
+                    new AbsenceQueryTooLargeException(calendarMaxOwners).toApiError()).build();
+        }
+
+        // Check if authenticated user has been granted vacations:all:read
+        if (!Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication) && !Set.of(userId).equals(ids)) {
+            return response
+                    .fromError(HttpStatus.FORBIDDEN, new APIError("OAuthException",
+                            "The request requires higher privileges than provided by the access token.",
+                            "The authenticated user has not been granted the required scope(s).", null, 403))
+                    .build();
+        }
+
+        response.setData(this.vacationCalendarService.findAbsentOwnersByDay(ids, from, to));
+
+        return response.build();
+    }
+
     /**
      * Index route for /vacations endpoint. Returns Vacations with given id (if
      * user
@@ -413,7 +684,12 @@ public class VacationController {
 
         Vacation vacation = vacationsDTO.toObject();
         vacation.setOwner(Helpers.getUserId(authentication));
-        vacation = this.vacationService.create(vacation);
+        try {
+            vacation = this.vacationService.create(vacation);
+        } catch (VacationOverlapException e) {
+            log.info("Vacation overlaps vacation {}.", e.getConflictingId());
+            return response.fromError(HttpStatus.CONFLICT, e.toApiError()).build();
+        }
         response.setData(vacation);
 
         return response.build();
@@ -473,6 +749,9 @@ public class VacationController {
         } catch (VacationNotFoundException e) {
             log.info("Vacation could not be found.");
             return response.fromError(HttpStatus.NOT_FOUND, e.toApiError()).build();
+        } catch (VacationOverlapException e) {
+            log.info("Vacation overlaps vacation {}.", e.getConflictingId());
+            return response.fromError(HttpStatus.CONFLICT, e.toApiError()).build();
         }
 
         return response.build();
@@ -532,6 +811,10 @@ public class VacationController {
         return response.build();
     }
 
+    private static Date toDate(final LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     /**
      * Helper class for OpenAPI generation.
      * 
@@ -619,4 +902,30 @@ public class VacationController {
             super(status);
         }
     };
-}
\ No newline at end of file
+
+    /**
+     * Helper class for OpenAPI generation.
+     * 
+     * @author Michael Beutler
+     * @version 1.0.0
+     * @since 1.0.14
+     */
+    private final class VacationAbsencesResponse extends GenericResponse<Map<String, List<Vacation>>> {
+        public VacationAbsencesResponse(final HttpStatus status) {
+            super(status);
+        }
+    };
+
+    /**
+     * Helper class for OpenAPI generation.
+     * 
+     * @author Michael Beutler
+     * @version 1.0.0
+     * @since 1.0.14
+     */
+    private final class VacationCalendarResponse extends GenericResponse<Map<LocalDate, List<String>>> {
+        public VacationCalendarResponse(final HttpStatus status) {
+            super(status);
+        }
+    };
+}
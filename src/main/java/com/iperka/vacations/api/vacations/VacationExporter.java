@@ -0,0 +1,166 @@
+package com.iperka.vacations.api.vacations;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes vacations to an output stream as newline delimited JSON or CSV.
+ * Vacations are written one by one while iterating, so the memory usage does
+ * not depend on the number of exported vacations.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Component
+public class VacationExporter {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_SEPARATOR = "\n";
+
+    // @formatter:off
+    private static final String[] CSV_HEADER = {
+        "id", "owner", "title", "startDate", "endDate", "days", "status", "type",
+        "createdAt", "createdBy", "updatedAt", "updatedBy"
+    };
+    // @formatter:on
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Writes each vacation as a single JSON line using the same serialization
+     * as the JSON endpoints.
+     *
+     * @since 1.0.14
+     * @param vacations    Vacations to write.
+     * @param outputStream Target stream, will be flushed but not closed.
+     * @return Number of written vacations.
+     * @throws IOException if writing fails.
+     */
+    public long writeJsonLines(final Iterator<Vacation> vacations, final OutputStream outputStream)
+            throws IOException {
+        final ObjectWriter writer = objectMapper.writerFor(Vacation.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated manually
+        generator.setRootValueSeparator(null);
+
+        long count = 0;
+        while (vacations.hasNext()) {
+            writer.writeValue(generator, vacations.next());
+            generator.writeRaw(LINE_SEPARATOR);
+            count++;
+        }
+
+        generator.close();
+        return count;
+    }
+
+    /**
+     * Writes the vacations as CSV with a header line. Values are quoted if
+     * required and values which could be interpreted as formula by
+     * spreadsheet applications will be escaped.
+     *
+     * @since 1.0.14
+     * @param vacations    Vacations to write.
+     * @param outputStream Target stream, will be flushed but not closed.
+     * @return Number of written vacations.
+     * @throws IOException if writing fails.
+     */
+    public long writeCsv(final Iterator<Vacation> vacations, final OutputStream outputStream) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        writeCsvLine(writer, CSV_HEADER);
+
+        long count = 0;
+        while (vacations.hasNext()) {
+            final Vacation vacation = vacations.next();
+
+            // @formatter:off
+            writeCsvLine(writer, new String[] {
+                vacation.getId(),
+                vacation.getOwner(),
+                vacation.getTitle(),
+                format(vacation.getStartDate()),
+                format(vacation.getEndDate()),
+                Double.toString(vacation.getDays()),
+                vacation.getStatus(),
+                vacation.getType(),
+                format(vacation.getCreatedAt()),
+                vacation.getCreatedBy(),
+                format(vacation.getUpdatedAt()),
+                vacation.getUpdatedBy()
+            });
+            // @formatter:on
+            count++;
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(final Writer writer, final String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private static void writeCsvValue(final Writer writer, final String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        // Prevent formula injection in spreadsheet applications
+        final char first = value.charAt(0);
+        final boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t'
+                || first == '\r';
+        final boolean quote = formula || value.indexOf(SEPARATOR) >= 0 || value.indexOf(QUOTE) >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write(QUOTE);
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+
+    private static String format(final Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.iperka.vacations.api.helpers.DateCalculator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationMonth} class defines
+ * the share of vacation days within a single month. It is embedded into the
+ * {@link com.iperka.vacations.api.vacations.Vacation} document so monthly
+ * overviews can be summed without recalculating the business days.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VacationMonth {
+    private static final long[] NO_HOLIDAYS = DateCalculator.toSortedEpochDays(List.of());
+
+    /**
+     * Year of the month.
+     */
+    private int year;
+
+    /**
+     * Month of the year (1 = January).
+     */
+    private int month;
+
+    /**
+     * Vacation days within the month.
+     */
+    private double days;
+
+    /**
+     * Distributes the days of the given vacation over its months. See
+     * {@link DateCalculator#distributeDaysByMonth(LocalDate, LocalDate, double, long[])}.
+     *
+     * @since 1.0.14
+     * @param vacation Vacation object.
+     * @return List of months in chronological order or an empty list if the
+     *         vacation has no valid date range.
+     */
+    public static List<VacationMonth> fromVacation(final Vacation vacation) {
+        final List<VacationMonth> months = new ArrayList<>();
+        if (vacation.getStartDate() == null || vacation.getEndDate() == null
+                || vacation.getStartDate().after(vacation.getEndDate())) {
+            return months;
+        }
+
+        final LocalDate startDate = LocalDate.ofInstant(vacation.getStartDate().toInstant(), ZoneId.systemDefault());
+        final LocalDate endDate = LocalDate.ofInstant(vacation.getEndDate().toInstant(), ZoneId.systemDefault());
+
+        for (Map.Entry<YearMonth, Double> entry : DateCalculator
+                .distributeDaysByMonth(startDate, endDate, vacation.getDays(), NO_HOLIDAYS).entrySet()) {
+            months.add(new VacationMonth(entry.getKey().getYear(), entry.getKey().getMonthValue(), entry.getValue()));
+        }
+
+        return months;
+    }
+}
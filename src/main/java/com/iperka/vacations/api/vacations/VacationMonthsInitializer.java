@@ -0,0 +1,73 @@
+package com.iperka.vacations.api.vacations;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calculates the {@link VacationMonth} split for vacations which have been
+ * stored before the split has been introduced. Runs once the application is
+ * ready and only touches documents without split.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class VacationMonthsInitializer {
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Updates all vacations without month split in batches.
+     *
+     * @since 1.0.14
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeMonths() {
+        final Query query = Query.query(Criteria.where("months").exists(false));
+        long updated = 0;
+
+        try (CloseableIterator<Vacation> vacations = mongoTemplate.stream(query, Vacation.class)) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Vacation.class);
+            int pending = 0;
+
+            while (vacations.hasNext()) {
+                final Vacation vacation = vacations.next();
+                operations.updateOne(Query.query(Criteria.where("id").is(vacation.getId())),
+                        Update.update("months", VacationMonth.fromVacation(vacation)));
+
+                if (++pending == BATCH_SIZE) {
+                    operations.execute();
+                    updated += pending;
+                    operations = mongoTemplate.bulkOps(BulkMode.UNORDERED, Vacation.class);
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                operations.execute();
+                updated += pending;
+            }
+        } catch (final Exception e) {
+            log.error("Exception occurred while calculating vacation months.", e);
+        }
+
+        if (updated > 0) {
+            log.info("Calculated months for {} vacation(s).", updated);
+        }
+    }
+}
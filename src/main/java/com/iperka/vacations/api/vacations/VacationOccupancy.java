@@ -0,0 +1,179 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationOccupancy} class
+ * holds the days of a year on which an owner has a requested or accepted
+ * vacation as bitmap. Bit {@code n} stands for day {@code n + 1} of the year,
+ * so a year takes 366 bits in six words.
+ *
+ * Occupancies are derived from the vacations and can be rebuilt at any time.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "vacationOccupancies")
+public class VacationOccupancy {
+    private static final int DAYS = 366;
+    private static final int WORDS = (DAYS + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * Owner and year, see {@link #id(String, int)}.
+     */
+    @Id
+    private String id;
+
+    private String owner;
+    private int year;
+    private long[] days = new long[WORDS];
+    private Date updatedAt;
+
+    /**
+     * Returns the id of the occupancy of the given owner and year.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @param year  Year.
+     * @return Id.
+     */
+    public static String id(final String owner, final int year) {
+        return owner + "/" + year;
+    }
+
+    /**
+     * Creates an empty occupancy.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @param year  Year.
+     * @return Occupancy without any occupied day.
+     */
+    public static VacationOccupancy of(final String owner, final int year) {
+        final VacationOccupancy occupancy = new VacationOccupancy();
+        occupancy.id = id(owner, year);
+        occupancy.owner = owner;
+        occupancy.year = year;
+        occupancy.updatedAt = new Date();
+        return occupancy;
+    }
+
+    /**
+     * Marks the days of the given vacation within this year as occupied.
+     *
+     * @since 1.0.14
+     * @param vacation Vacation object.
+     */
+    public void occupy(final Vacation vacation) {
+        if (vacation.getStartDate() == null || vacation.getEndDate() == null) {
+            return;
+        }
+
+        occupy(toLocalDate(vacation.getStartDate()), toLocalDate(vacation.getEndDate()));
+    }
+
+    /**
+     * Marks the given days within this year as occupied. Both ends are
+     * inclusive, days outside of this year are ignored.
+     *
+     * @since 1.0.14
+     * @param from First day.
+     * @param to   Last day.
+     */
+    public void occupy(final LocalDate from, final LocalDate to) {
+        if (from.getYear() > year || to.getYear() < year || from.isAfter(to)) {
+            return;
+        }
+
+        final int first = from.getYear() < year ? 0 : from.getDayOfYear() - 1;
+        final int last = to.getYear() > year ? LocalDate.of(year, 12, 31).getDayOfYear() - 1 : to.getDayOfYear() - 1;
+
+        // Set whole words at once
+        int bit = first;
+        while (bit <= last) {
+            final int word = bit / Long.SIZE;
+            final int end = Math.min(last, (word + 1) * Long.SIZE - 1);
+            final int length = end - bit + 1;
+            final long mask = length == Long.SIZE ? -1L : ((1L << length) - 1) << (bit % Long.SIZE);
+            days[word] |= mask;
+            bit = end + 1;
+        }
+    }
+
+    /**
+     * Checks if the given day of the year is occupied.
+     *
+     * @since 1.0.14
+     * @param dayOfYear Day of the year (1 = January 1st).
+     * @return true if occupied.
+     */
+    public boolean isOccupied(final int dayOfYear) {
+        final int bit = dayOfYear - 1;
+        return (days[bit / Long.SIZE] & (1L << (bit % Long.SIZE))) != 0;
+    }
+
+    /**
+     * Calls the given action for every occupied day of the year between
+     * {@code first} and {@code last} (both inclusive). Only set bits are
+     * visited, empty words are skipped.
+     *
+     * @since 1.0.14
+     * @param first  First day of the year (1 = January 1st).
+     * @param last   Last day of the year.
+     * @param action Action receiving the day of the year.
+     */
+    public void forEachOccupied(final int first, final int last, final IntConsumer action) {
+        for (int word = (first - 1) / Long.SIZE; word <= (last - 1) / Long.SIZE; word++) {
+            long bits = days[word];
+            while (bits != 0) {
+                final int dayOfYear = word * Long.SIZE + Long.numberOfTrailingZeros(bits) + 1;
+                bits &= bits - 1;
+                if (dayOfYear >= first && dayOfYear <= last) {
+                    action.accept(dayOfYear);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the years touched by the given vacation.
+     *
+     * @since 1.0.14
+     * @param vacation Vacation object.
+     * @return Years in ascending order, empty if the vacation has no valid
+     *         date range.
+     */
+    public static List<Integer> years(final Vacation vacation) {
+        if (vacation.getStartDate() == null || vacation.getEndDate() == null) {
+            return List.of();
+        }
+
+        return years(toLocalDate(vacation.getStartDate()), toLocalDate(vacation.getEndDate()));
+    }
+
+    static List<Integer> years(final LocalDate from, final LocalDate to) {
+        final List<Integer> years = new ArrayList<>();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            years.add(year);
+        }
+        return years;
+    }
+
+    private static LocalDate toLocalDate(final Date date) {
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,17 @@
+package com.iperka.vacations.api.vacations;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the occupancy bitmaps of the vacation owners.
+ * Extends the {@link MongoRepository} interface, occupancies built on read
+ * are inserted so they never replace a newer occupancy built on write.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@Repository
+public interface VacationOccupancyRepository extends MongoRepository<VacationOccupancy, String> {
+}
@@ -19,7 +19,7 @@ import org.springframework.stereotype.Repository;
  * @since 1.0.0
  */
 @Repository
-public interface VacationRepository extends PagingAndSortingRepository<Vacation, String> {
+public interface VacationRepository extends PagingAndSortingRepository<Vacation, String>, VacationRepositoryCustom {
     /**
      * Retrieves all vacations as {@link org.springframework.data.domain.Page}
      * object. Bare in mind that these method should be explicit to administrative
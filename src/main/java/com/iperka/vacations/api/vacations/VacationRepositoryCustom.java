@@ -0,0 +1,97 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.Year;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
+
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationRepositoryCustom}
+ * interface defines custom queries which can not be derived from method
+ * names and are therefore implemented manually.
+ *
+ * @author Michael Beutler
+ * @version 1.0.4
+ * @since 1.0.14
+ */
+public interface VacationRepositoryCustom {
+    /**
+     * Sums the vacation days of the given year grouped by month. The
+     * calculation is done by the database using an aggregation pipeline, so
+     * only the 12 monthly totals are transferred.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0. If null, vacations of all
+     *              owners will be summed.
+     * @param year  Desired year.
+     * @return Array with the sum of days for each month (January at index 0).
+     */
+    public double[] sumDaysByMonth(String owner, Year year);
+
+    /**
+     * Retrieves vacations ordered by start date using keyset pagination.
+     * Elements after the given cursor are selected by a range seek on
+     * {@code (startDate, _id)}, no elements are skipped and no count query
+     * will be executed.
+     *
+     * @since 1.0.14
+     * @param owner  Owner user id provided by Auth0. If null, vacations of all
+     *               owners will be returned.
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @return Page with vacations and the cursor of the next page.
+     */
+    public CursorPage<Vacation> findAllAfter(String owner, Cursor cursor, int size);
+
+    /**
+     * Streams vacations ordered by start date directly from a database cursor. Only
+     * one batch is held in memory at a time. The iterator must be closed
+     * after use.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0. If null, vacations of all
+     *              owners will be streamed.
+     * @return Iterator backed by a database cursor.
+     */
+    public CloseableIterator<Vacation> streamAll(String owner);
+
+    /**
+     * Finds any vacation of the given owner which overlaps the given date
+     * range and whose status is one of the given statuses. Both ends of the
+     * range are inclusive. The lookup is a range seek on
+     * {@code (owner, endDate, startDate)}.
+     *
+     * @since 1.0.14
+     * @param owner     Owner user id provided by Auth0.
+     * @param from      First day of the range.
+     * @param to        Last day of the range.
+     * @param statuses  Statuses to respect.
+     * @param excludeId Id of a vacation to ignore (e.g. the updated one), may
+     *                  be null.
+     * @return Overlapping vacation with id, title and dates only.
+     */
+    public Optional<Vacation> findFirstOverlapping(String owner, Date from, Date to,
+            Collection<VacationStatus> statuses, String excludeId);
+
+    /**
+     * Retrieves all vacations of the given owners which overlap the given
+     * date range and whose status is one of the given statuses. The start of
+     * the range is inclusive, the end is exclusive, so vacations starting at
+     * any time of the last day are found with the start of the following day.
+     *
+     * @since 1.0.14
+     * @param owners      Owner user ids provided by Auth0.
+     * @param from        Start of the range (inclusive).
+     * @param toExclusive End of the range (exclusive).
+     * @param statuses    Statuses to respect.
+     * @return Overlapping vacations ordered by owner and end date.
+     */
+    public List<Vacation> findAllOverlapping(Collection<String> owners, Date from, Date toExclusive,
+            Collection<VacationStatus> statuses);
+}
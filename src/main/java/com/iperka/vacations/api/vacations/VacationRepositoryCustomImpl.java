@@ -0,0 +1,184 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.Year;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationRepositoryCustomImpl}
+ * class implements the
+ * {@link com.iperka.vacations.api.vacations.VacationRepositoryCustom}
+ * interface using the {@link MongoTemplate}.
+ *
+ * @author Michael Beutler
+ * @version 1.0.5
+ * @since 1.0.14
+ */
+public class VacationRepositoryCustomImpl implements VacationRepositoryCustom {
+    private static final String MONTHS = "months";
+    private static final String MONTHS_YEAR = "months.year";
+    private static final String START_DATE = "startDate";
+    private static final String END_DATE = "endDate";
+    private static final String OWNER = "owner";
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Sums the vacation days of the given year grouped by month. The pipeline
+     * sums the precomputed {@link VacationMonth} buckets of all matching
+     * vacations, no business days need to be calculated.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0. If null, vacations of all
+     *              owners will be summed.
+     * @param year  Desired year.
+     * @return Array with the sum of days for each month (January at index 0).
+     */
+    @Override
+    public double[] sumDaysByMonth(final String owner, final Year year) {
+        Criteria criteria = Criteria.where(MONTHS_YEAR).is(year.getValue());
+        if (owner != null) {
+            criteria = Criteria.where("owner").is(owner).and(MONTHS_YEAR).is(year.getValue());
+        }
+
+        // @formatter:off
+        final Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.project(MONTHS),
+            Aggregation.unwind(MONTHS),
+            Aggregation.match(Criteria.where(MONTHS_YEAR).is(year.getValue())),
+            Aggregation.group("months.month").sum("months.days").as("days")
+        );
+        // @formatter:on
+
+        final double[] daysByMonth = new double[12];
+        for (Document result : mongoTemplate.aggregate(aggregation, Vacation.class, Document.class)) {
+            final Number month = result.get("_id", Number.class);
+            final Number days = result.get("days", Number.class);
+            daysByMonth[month.intValue() - 1] = days.doubleValue();
+        }
+
+        return daysByMonth;
+    }
+
+    /**
+     * Retrieves vacations ordered by start date using keyset pagination. One
+     * element more than requested will be fetched to detect the next page.
+     *
+     * @since 1.0.14
+     * @param owner  Owner user id provided by Auth0. If null, vacations of all
+     *               owners will be returned.
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @return Page with vacations and the cursor of the next page.
+     */
+    @Override
+    public CursorPage<Vacation> findAllAfter(final String owner, final Cursor cursor, final int size) {
+        final Query query = new Query();
+        if (owner != null) {
+            query.addCriteria(Criteria.where("owner").is(owner));
+        }
+        if (cursor != null) {
+            query.addCriteria(cursor.after(START_DATE, Direction.ASC));
+        }
+        query.with(Cursor.sort(START_DATE, Direction.ASC)).limit(size + 1);
+
+        return CursorPage.of(mongoTemplate.find(query, Vacation.class), size, cursor == null,
+                vacation -> new Cursor(vacation.getStartDate(), vacation.getId()));
+    }
+
+    /**
+     * Streams vacations ordered by start date directly from a database cursor which
+     * fetches {@value #STREAM_BATCH_SIZE} documents per round trip.
+     *
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0. If null, vacations of all
+     *              owners will be streamed.
+     * @return Iterator backed by a database cursor.
+     */
+    @Override
+    public CloseableIterator<Vacation> streamAll(final String owner) {
+        final Query query = new Query();
+        if (owner != null) {
+            query.addCriteria(Criteria.where("owner").is(owner));
+        }
+        query.with(Cursor.sort(START_DATE, Direction.ASC)).cursorBatchSize(STREAM_BATCH_SIZE);
+
+        return mongoTemplate.stream(query, Vacation.class);
+    }
+
+    /**
+     * Finds any vacation of the given owner which overlaps the given date
+     * range. Only the fields required to describe the conflict are fetched.
+     *
+     * @since 1.0.14
+     * @param owner     Owner user id provided by Auth0.
+     * @param from      First day of the range.
+     * @param to        Last day of the range.
+     * @param statuses  Statuses to respect.
+     * @param excludeId Id of a vacation to ignore, may be null.
+     * @return Overlapping vacation with id, title and dates only.
+     */
+    @Override
+    public Optional<Vacation> findFirstOverlapping(final String owner, final Date from, final Date to,
+            final Collection<VacationStatus> statuses, final String excludeId) {
+        final Query query = new Query(
+                overlapping(Criteria.where(OWNER).is(owner), from, statuses).and(START_DATE).lte(to));
+        if (excludeId != null) {
+            query.addCriteria(Criteria.where("_id").ne(excludeId));
+        }
+        query.fields().include("title").include(START_DATE).include(END_DATE);
+
+        return Optional.ofNullable(mongoTemplate.findOne(query, Vacation.class));
+    }
+
+    /**
+     * Retrieves all vacations of the given owners which overlap the given
+     * date range. The owners are matched with a single {@code $in} query, so
+     * one round trip is needed regardless of the number of owners.
+     *
+     * @since 1.0.14
+     * @param owners      Owner user ids provided by Auth0.
+     * @param from        Start of the range (inclusive).
+     * @param toExclusive End of the range (exclusive).
+     * @param statuses    Statuses to respect.
+     * @return Overlapping vacations ordered by owner and end date.
+     */
+    @Override
+    public List<Vacation> findAllOverlapping(final Collection<String> owners, final Date from,
+            final Date toExclusive, final Collection<VacationStatus> statuses) {
+        final Query query = new Query(
+                overlapping(Criteria.where(OWNER).in(owners), from, statuses).and(START_DATE).lt(toExclusive));
+        query.with(Sort.by(OWNER, END_DATE));
+
+        return mongoTemplate.find(query, Vacation.class);
+    }
+
+    /**
+     * Two ranges overlap if each one starts before the other one ends. The
+     * end date comes first, so the bound on it can be used as index range
+     * while the start date is filtered from the index keys. The caller adds
+     * the bound on the start date, which is inclusive or exclusive.
+     */
+    private static Criteria overlapping(final Criteria owner, final Date from,
+            final Collection<VacationStatus> statuses) {
+        return owner.and(END_DATE).gte(from).and("status").in(statuses);
+    }
+}
@@ -1,14 +1,19 @@
 package com.iperka.vacations.api.vacations;
 
 import java.time.Year;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
-
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 import com.iperka.vacations.api.vacations.exceptions.VacationNotFoundException;
+import com.iperka.vacations.api.vacations.exceptions.VacationOverlapException;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
 
 /**
  * The {@link com.iperka.vacations.api.UserService}
@@ -16,7 +21,7 @@ import org.springframework.data.domain.Pageable;
  * {@link com.iperka.vacations.api.UserRepository} interface.
  * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.2
  * @since 1.0.0
  */
 public interface VacationService {
@@ -42,6 +47,50 @@ public interface VacationService {
      */
     public abstract Page<Vacation> findAllByOwner(Pageable pageable, String owner);
 
+    /**
+     * Retrieves all vacations ordered by start date using keyset pagination.
+     * Bare in mind that these method should be explicit to administrative
+     * roles.
+     * 
+     * @since 1.0.14
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @return Page with Vacation objects and the cursor of the next page.
+     */
+    public abstract CursorPage<Vacation> findAllAfter(Cursor cursor, int size);
+
+    /**
+     * Retrieves all vacations owned by given user ordered by start date using
+     * keyset pagination.
+     * 
+     * @since 1.0.14
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @param owner  Owner user id provided by Auth0.
+     * @return Page with Vacation objects and the cursor of the next page.
+     */
+    public abstract CursorPage<Vacation> findAllByOwnerAfter(Cursor cursor, int size, String owner);
+
+    /**
+     * Streams all vacations from a database cursor. The iterator must be
+     * closed after use. Bare in mind that these method should be explicit to
+     * administrative roles.
+     * 
+     * @since 1.0.14
+     * @return Iterator backed by a database cursor.
+     */
+    public abstract CloseableIterator<Vacation> streamAll();
+
+    /**
+     * Streams all vacations owned by given user from a database cursor. The
+     * iterator must be closed after use.
+     * 
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @return Iterator backed by a database cursor.
+     */
+    public abstract CloseableIterator<Vacation> streamAllByOwner(String owner);
+
     /**
      * Returns vacation with given String.
      * Bare in mind that these method should be explicit to administrative
@@ -84,9 +133,10 @@ public interface VacationService {
      * @since 1.0.0
      * @param vacation new object.
      * @return Vacation created object.
-     * @throws VacationNotFoundException if vacation could not be found.
+     * @throws VacationOverlapException if vacation overlaps another vacation of
+     *                                  the owner.
      */
-    public abstract Vacation create(Vacation vacation);
+    public abstract Vacation create(Vacation vacation) throws VacationOverlapException;
 
     /**
      * Updates and returns vacation with given object.
@@ -95,8 +145,10 @@ public interface VacationService {
      * @param vacation new object.
      * @return Vacation updated object.
      * @throws VacationNotFoundException if vacation could not be found.
+     * @throws VacationOverlapException  if vacation overlaps another vacation of
+     *                                   the owner.
      */
-    public abstract Vacation update(Vacation vacation) throws VacationNotFoundException;
+    public abstract Vacation update(Vacation vacation) throws VacationNotFoundException, VacationOverlapException;
 
     /**
      * Updates and returns vacation with given object if owner equals given owner.
@@ -106,8 +158,11 @@ public interface VacationService {
      * @param owner    Owner user id provided by Auth0.
      * @return Vacation updated object.
      * @throws VacationNotFoundException if vacation could not be found.
+     * @throws VacationOverlapException  if vacation overlaps another vacation of
+     *                                   the owner.
      */
-    public abstract Vacation updateByOwner(Vacation vacation, String owner) throws VacationNotFoundException;
+    public abstract Vacation updateByOwner(Vacation vacation, String owner)
+            throws VacationNotFoundException, VacationOverlapException;
 
     /**
      * Deletes vacation with given String.
@@ -141,4 +196,40 @@ public interface VacationService {
      * @return Array of sum's.
      */
     public abstract double[] getDaysCountByMonth(List<Vacation> vacations, Year year);
+
+    /**
+     * Sums the vacation days of all vacations by month for the given year.
+     * Bare in mind that these method should be explicit to administrative
+     * roles.
+     * 
+     * @since 1.0.14
+     * @param year Desired year.
+     * @return Array of sum's.
+     */
+    public abstract double[] getDaysCountByMonth(Year year);
+
+    /**
+     * Sums the vacation days of all vacations owned by given user by month for
+     * the given year.
+     * 
+     * @since 1.0.14
+     * @param year  Desired year.
+     * @param owner Owner user id provided by Auth0.
+     * @return Array of sum's.
+     */
+    public abstract double[] getDaysCountByMonthAndOwner(Year year, String owner);
+
+    /**
+     * Retrieves the requested and accepted vacations of the given owners which
+     * overlap the given date range, grouped by owner. Owners without such
+     * vacations are omitted.
+     * 
+     * @since 1.0.14
+     * @param owners      Owner user ids provided by Auth0.
+     * @param from        Start of the range (inclusive).
+     * @param toExclusive End of the range (exclusive).
+     * @return Vacations by owner.
+     */
+    public abstract Map<String, List<Vacation>> findAbsences(Collection<String> owners, Date from,
+            Date toExclusive);
 }
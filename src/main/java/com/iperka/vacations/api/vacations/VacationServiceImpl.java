@@ -3,21 +3,32 @@ package com.iperka.vacations.api.vacations;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.TreeSet;
 
 import javax.transaction.Transactional;
 
 import com.iperka.vacations.api.audit.AuditOperation;
+import com.iperka.vacations.api.helpers.Cursor;
+import com.iperka.vacations.api.helpers.CursorPage;
 import com.iperka.vacations.api.helpers.DateCalculator;
 import com.iperka.vacations.api.security.Auditable;
 import com.iperka.vacations.api.vacations.exceptions.VacationNotFoundException;
+import com.iperka.vacations.api.vacations.exceptions.VacationOverlapException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -27,15 +38,30 @@ import org.springframework.stereotype.Service;
  * {@link com.iperka.vacations.api.UserServiceImpl}
  * interface and provides service layer methods.
  * 
+ * Status changes are published as {@link VacationStatusChangedEvent}.
+ * Requested and accepted vacations of the same owner must not overlap. The
+ * check is done before saving and is not atomic, concurrent requests of the
+ * same owner may still result in overlapping vacations. The
+ * {@link VacationOccupancy} bitmaps of the owner are rebuilt after every
+ * write.
+ * 
  * @author Michael Beutler
- * @version 1.0.0
+ * @version 1.0.4
  * @since 1.0.0
  */
 @Service
 public class VacationServiceImpl extends Auditable implements VacationService {
+    private static final long[] NO_HOLIDAYS = DateCalculator.toSortedEpochDays(List.of());
+
     @Autowired
     private VacationRepository vacationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private VacationCalendarService vacationCalendarService;
+
     /**
      * Retrieves all vacations as {@link org.springframework.data.domain.Page}
      * object. Bare in mind that these method should be explicit to administrative
@@ -66,6 +92,66 @@ public class VacationServiceImpl extends Auditable implements VacationService {
         return vacationRepository.findAllByOwner(pageable, owner);
     }
 
+    /**
+     * Retrieves all vacations ordered by start date using keyset pagination.
+     * Bare in mind that these method should be explicit to administrative
+     * roles.
+     * 
+     * @since 1.0.14
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @return Page with Vacation objects and the cursor of the next page.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public CursorPage<Vacation> findAllAfter(Cursor cursor, int size) {
+        return vacationRepository.findAllAfter(null, cursor, size);
+    }
+
+    /**
+     * Retrieves all vacations owned by given user ordered by start date using
+     * keyset pagination.
+     * 
+     * @since 1.0.14
+     * @param cursor Cursor of the previous page or null for the first page.
+     * @param size   Page size.
+     * @param owner  Owner user id provided by Auth0.
+     * @return Page with Vacation objects and the cursor of the next page.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public CursorPage<Vacation> findAllByOwnerAfter(Cursor cursor, int size, String owner) {
+        return vacationRepository.findAllAfter(owner, cursor, size);
+    }
+
+    /**
+     * Streams all vacations from a database cursor. The iterator must be
+     * closed after use. Bare in mind that these method should be explicit to
+     * administrative roles.
+     * 
+     * @since 1.0.14
+     * @return Iterator backed by a database cursor.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public CloseableIterator<Vacation> streamAll() {
+        return vacationRepository.streamAll(null);
+    }
+
+    /**
+     * Streams all vacations owned by given user from a database cursor. The
+     * iterator must be closed after use.
+     * 
+     * @since 1.0.14
+     * @param owner Owner user id provided by Auth0.
+     * @return Iterator backed by a database cursor.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public CloseableIterator<Vacation> streamAllByOwner(String owner) {
+        return vacationRepository.streamAll(owner);
+    }
+
     /**
      * Returns vacation with given String.
      * Bare in mind that these method should be explicit to administrative
@@ -121,12 +207,17 @@ public class VacationServiceImpl extends Auditable implements VacationService {
      * @since 1.0.0
      * @param vacation new object.
      * @return Vacation created object.
+     * @throws VacationOverlapException if vacation overlaps another vacation of
+     *                                  the owner.
      */
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_vacations:write', 'SCOPE_vacations:all:write')")
-    public Vacation create(Vacation vacation) {
+    public Vacation create(Vacation vacation) throws VacationOverlapException {
+        this.verifyNoOverlap(vacation, vacation.getOwner());
+        vacation.setMonths(VacationMonth.fromVacation(vacation));
         vacation = vacationRepository.save(vacation);
         this.audit(AuditOperation.CREATE, null, vacation);
+        this.refreshCalendar(vacation.getOwner(), vacation);
         return vacation;
     }
 
@@ -137,13 +228,19 @@ public class VacationServiceImpl extends Auditable implements VacationService {
      * @param vacation new object.
      * @return Vacation updated object.
      * @throws VacationNotFoundException if vacation could not be found.
+     * @throws VacationOverlapException  if vacation overlaps another vacation of
+     *                                   the owner.
      */
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_vacations:all:write')")
-    public Vacation update(Vacation vacation) throws VacationNotFoundException {
+    public Vacation update(Vacation vacation) throws VacationNotFoundException, VacationOverlapException {
         Vacation before = this.findById(vacation.getId());
+        this.verifyNoOverlap(vacation, vacation.getOwner() != null ? vacation.getOwner() : before.getOwner());
+        vacation.setMonths(VacationMonth.fromVacation(vacation));
         Vacation after = vacationRepository.save(vacation);
         this.audit(AuditOperation.UPDATE, before, after);
+        this.publishStatusChange(before, after);
+        this.refreshCalendar(before.getOwner(), before, after);
         return after;
     }
 
@@ -155,13 +252,20 @@ public class VacationServiceImpl extends Auditable implements VacationService {
      * @param owner    Owner user id provided by Auth0.
      * @return Vacation updated object.
      * @throws VacationNotFoundException if vacation could not be found.
+     * @throws VacationOverlapException  if vacation overlaps another vacation of
+     *                                   the owner.
      */
     @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_vacations:write', 'SCOPE_vacations:all:write')")
-    public Vacation updateByOwner(Vacation vacation, String owner) throws VacationNotFoundException {
+    public Vacation updateByOwner(Vacation vacation, String owner)
+            throws VacationNotFoundException, VacationOverlapException {
         Vacation before = this.findByIdAndOwner(vacation.getId(), owner);
+        this.verifyNoOverlap(vacation, owner);
+        vacation.setMonths(VacationMonth.fromVacation(vacation));
         Vacation after = vacationRepository.save(vacation);
         this.audit(AuditOperation.UPDATE, before, after);
+        this.publishStatusChange(before, after);
+        this.refreshCalendar(before.getOwner(), before, after);
         return after;
     }
 
@@ -180,6 +284,7 @@ public class VacationServiceImpl extends Auditable implements VacationService {
     public void deleteById(String id) throws VacationNotFoundException {
         Vacation vacation = this.findById(id);
         vacationRepository.deleteById(vacation.getId());
+        this.refreshCalendar(vacation.getOwner(), vacation);
     }
 
     /**
@@ -197,36 +302,117 @@ public class VacationServiceImpl extends Auditable implements VacationService {
     public void deleteByIdAndOwner(String id, String owner) throws VacationNotFoundException {
         Vacation vacation = this.findByIdAndOwner(id, owner);
         vacationRepository.deleteByIdAndOwner(vacation.getId(), owner);
+        this.refreshCalendar(owner, vacation);
     }
 
+    @Override
     @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
     public double[] getDaysCountByMonth(List<Vacation> vacations, Year year) {
         double[] vacationMonthViewDTO = new double[12];
 
         for (Vacation vacation : vacations) {
-            double total = vacation.getDays();
-            double daysAdded = 0;
+            // Sum precomputed months if available
+            if (vacation.getMonths() != null && !vacation.getMonths().isEmpty()) {
+                for (VacationMonth month : vacation.getMonths()) {
+                    if (month.getYear() == year.getValue()) {
+                        vacationMonthViewDTO[month.getMonth() - 1] += month.getDays();
+                    }
+                }
+                continue;
+            }
 
             LocalDate startDateAsLocal = LocalDate.ofInstant(vacation.getStartDate().toInstant(),
                     ZoneId.systemDefault());
             LocalDate endDateAsLocal = LocalDate.ofInstant(vacation.getEndDate().toInstant(), ZoneId.systemDefault());
 
-            List<LocalDate> dates = DateCalculator.getBusinessDaysBetween(startDateAsLocal, endDateAsLocal,
-                    Optional.empty());
-
-            for (LocalDate localDate : dates) {
-                if (localDate.getYear() != year.getValue()) {
-                    continue;
-                }
-                if (total > daysAdded + 1) {
-                    vacationMonthViewDTO[localDate.getMonthValue() - 1] += 1;
-                    daysAdded++;
-                    continue;
-                }
-                vacationMonthViewDTO[localDate.getMonthValue() - 1] += total - daysAdded;
-            }
+            DateCalculator.addDaysByMonth(startDateAsLocal, endDateAsLocal, vacation.getDays(),
+                    NO_HOLIDAYS, year, vacationMonthViewDTO);
         }
 
         return vacationMonthViewDTO;
     }
+
+    /**
+     * Sums the vacation days of all vacations by month for the given year.
+     * Bare in mind that these method should be explicit to administrative
+     * roles.
+     * 
+     * @since 1.0.14
+     * @param year Desired year.
+     * @return Array of sum's.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public double[] getDaysCountByMonth(Year year) {
+        return vacationRepository.sumDaysByMonth(null, year);
+    }
+
+    /**
+     * Sums the vacation days of all vacations owned by given user by month for
+     * the given year.
+     * 
+     * @since 1.0.14
+     * @param year  Desired year.
+     * @param owner Owner user id provided by Auth0.
+     * @return Array of sum's.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public double[] getDaysCountByMonthAndOwner(Year year, String owner) {
+        return vacationRepository.sumDaysByMonth(owner, year);
+    }
+
+    /**
+     * Retrieves the requested and accepted vacations of the given owners which
+     * overlap the given date range, grouped by owner. All owners are queried
+     * at once.
+     * 
+     * @since 1.0.14
+     * @param owners      Owner user ids provided by Auth0.
+     * @param from        Start of the range (inclusive).
+     * @param toExclusive End of the range (exclusive).
+     * @return Vacations by owner.
+     */
+    @Override
+    @PreAuthorize("hasAnyAuthority('SCOPE_vacations:read', 'SCOPE_vacations:write', 'SCOPE_vacations:all:read', 'SCOPE_vacations:all:write')")
+    public Map<String, List<Vacation>> findAbsences(Collection<String> owners, Date from, Date toExclusive) {
+        final Map<String, List<Vacation>> absences = new LinkedHashMap<>();
+        for (Vacation vacation : vacationRepository.findAllOverlapping(owners, from, toExclusive,
+                VacationStatus.OCCUPYING)) {
+            absences.computeIfAbsent(vacation.getOwner(), owner -> new ArrayList<>()).add(vacation);
+        }
+
+        return absences;
+    }
+
+    /**
+     * Withdrawn and rejected vacations don't occupy their date range and
+     * therefore never conflict.
+     */
+    private void verifyNoOverlap(final Vacation vacation, final String owner) throws VacationOverlapException {
+        final VacationStatus status = VacationStatus.valueOf(vacation.getStatus().toUpperCase(Locale.ROOT));
+        if (!VacationStatus.OCCUPYING.contains(status)) {
+            return;
+        }
+
+        final Optional<Vacation> conflict = vacationRepository.findFirstOverlapping(owner, vacation.getStartDate(),
+                vacation.getEndDate(), VacationStatus.OCCUPYING, vacation.getId());
+        if (conflict.isPresent()) {
+            throw new VacationOverlapException(conflict.get().getId());
+        }
+    }
+
+    private void refreshCalendar(final String owner, final Vacation... vacations) {
+        final Set<Integer> years = new TreeSet<>();
+        for (Vacation vacation : vacations) {
+            years.addAll(VacationOccupancy.years(vacation));
+        }
+        vacationCalendarService.refresh(owner, years);
+    }
+
+    private void publishStatusChange(final Vacation before, final Vacation after) {
+        if (!before.getStatus().equals(after.getStatus())) {
+            applicationEventPublisher.publishEvent(VacationStatusChangedEvent.of(before, after));
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package com.iperka.vacations.api.vacations;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum VacationStatus {
 
     REQUESTED("requested"),
@@ -7,6 +11,12 @@ public enum VacationStatus {
     WITHDRAWN("withdrawn"),
     REJECTED("rejected");
 
+    /**
+     * Statuses of vacations which occupy their date range. Such vacations
+     * must not overlap and count as absence of the owner.
+     */
+    public static final Set<VacationStatus> OCCUPYING = Collections.unmodifiableSet(EnumSet.of(REQUESTED, ACCEPTED));
+
     private final String status;
 
     private VacationStatus(String status) {
@@ -0,0 +1,63 @@
+package com.iperka.vacations.api.vacations;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The {@link com.iperka.vacations.api.vacations.VacationStatusChangedEvent}
+ * is published after the status of a vacation has been changed.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Data
+@AllArgsConstructor
+public class VacationStatusChangedEvent {
+    private final String vacationId;
+    private final String owner;
+    private final String title;
+    private final Date startDate;
+    private final Date endDate;
+
+    /**
+     * Status before the change, e.g. {@code requested}.
+     */
+    private final String from;
+
+    /**
+     * Status after the change, e.g. {@code accepted}.
+     */
+    private final String to;
+
+    /**
+     * Creates an event from the given states of a vacation. Fields missing
+     * after the update, e.g. the owner of a vacation updated from a
+     * {@link com.iperka.vacations.api.vacations.dto.VacationDTO}, are taken
+     * from the state before the update.
+     *
+     * @since 1.0.14
+     * @param before Vacation before the update.
+     * @param after  Vacation after the update.
+     * @return Event.
+     */
+    public static VacationStatusChangedEvent of(final Vacation before, final Vacation after) {
+        // @formatter:off
+        return new VacationStatusChangedEvent(
+            orElse(after.getId(), before.getId()),
+            orElse(after.getOwner(), before.getOwner()),
+            orElse(after.getTitle(), before.getTitle()),
+            orElse(after.getStartDate(), before.getStartDate()),
+            orElse(after.getEndDate(), before.getEndDate()),
+            before.getStatus(),
+            after.getStatus()
+        );
+        // @formatter:on
+    }
+
+    private static <T> T orElse(final T value, final T fallback) {
+        return value != null ? value : fallback;
+    }
+}
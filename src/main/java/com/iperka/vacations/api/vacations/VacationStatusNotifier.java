@@ -0,0 +1,219 @@
+package com.iperka.vacations.api.vacations;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.iperka.vacations.api.mail.MailService;
+import com.iperka.vacations.api.mail.MailTemplate;
+import com.iperka.vacations.api.mail.MailTemplates;
+import com.iperka.vacations.api.users.auth0.ManagementService;
+import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
+import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notifies vacation owners about status changes by mail. Changes for the
+ * same owner within the configured window are coalesced into one digest, so
+ * approving many vacations at once results in one mail per owner. Multiple
+ * changes of the same vacation are reduced to the first and last status.
+ *
+ * Digests are queued in the mail outbox. Pending digests are flushed on
+ * shutdown, but changes which haven't been flushed are lost if the instance
+ * crashes.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@Slf4j
+@Component
+public class VacationStatusNotifier {
+    private static final String METRIC_PREFIX = "notifications.vacation.status";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE
+            .withZone(ZoneId.systemDefault());
+
+    @Value("${notifications.vacationStatus.enabled}")
+    private boolean enabled;
+
+    @Value("${notifications.vacationStatus.windowSeconds}")
+    private long windowSeconds;
+
+    @Value("${mail.from.address}")
+    private String fromAddress;
+
+    @Value("${mail.from.name}")
+    private String fromName;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailTemplates mailTemplates;
+
+    @Autowired
+    private ManagementService managementService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Pending changes by owner and vacation id.
+     */
+    private final Map<String, Map<String, VacationStatusChangedEvent>> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private Counter changeCounter;
+    private Counter digestCounter;
+
+    @PostConstruct
+    public void initialize() {
+        // @formatter:off
+        this.changeCounter = Counter.builder(METRIC_PREFIX + ".changes")
+            .description("Number of vacation status changes.")
+            .register(meterRegistry);
+        this.digestCounter = Counter.builder(METRIC_PREFIX + ".digests")
+            .description("Number of queued digest mails.")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending", this.pending, Map::size)
+            .description("Number of owners with pending changes.")
+            .register(meterRegistry);
+        // @formatter:on
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "vacation-status-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Flushes all pending digests.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+        this.pending.keySet().forEach(this::flush);
+    }
+
+    /**
+     * Adds the change to the digest of the vacation owner. The first change
+     * of an owner schedules the digest.
+     *
+     * @since 1.0.14
+     * @param event Status change.
+     */
+    @EventListener
+    public void onStatusChanged(final VacationStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getOwner() == null) {
+            log.warn("Status change of vacation {} has no owner, skipping notification.", event.getVacationId());
+            return;
+        }
+        this.changeCounter.increment();
+
+        this.pending.compute(event.getOwner(), (owner, changes) -> {
+            if (changes == null) {
+                changes = new LinkedHashMap<>();
+                this.scheduler.schedule(() -> flush(owner), windowSeconds, TimeUnit.SECONDS);
+            }
+
+            // Keep the status before the first change of this vacation
+            final VacationStatusChangedEvent previous = changes.get(event.getVacationId());
+            changes.put(event.getVacationId(), previous == null ? event
+                    : new VacationStatusChangedEvent(event.getVacationId(), owner, event.getTitle(),
+                            event.getStartDate(), event.getEndDate(), previous.getFrom(), event.getTo()));
+            return changes;
+        });
+    }
+
+    /**
+     * Renders and queues the digest for the given owner. Exceptions will be
+     * logged, the digest is dropped.
+     *
+     * @param owner Owner user id provided by Auth0.
+     */
+    void flush(final String owner) {
+        final Map<String, VacationStatusChangedEvent> changes = this.pending.remove(owner);
+        if (changes == null) {
+            return;
+        }
+
+        // Changed back to the original status in the meantime
+        changes.values().removeIf(change -> change.getFrom().equals(change.getTo()));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            final Optional<String> email = managementService.getEmail(owner);
+            if (email.isEmpty()) {
+                log.debug("Owner {} has no email address, skipping digest.", owner);
+                return;
+            }
+
+            mailService.send(render(email.get(), changes.values()));
+            this.digestCounter.increment();
+        } catch (final NotConfiguredException | UserNotFoundException | RuntimeException e) {
+            log.error("Exception occurred while notifying {} about {} status change(s).", owner, changes.size(), e);
+        }
+    }
+
+    private SimpleMailMessage render(final String to, final Iterable<VacationStatusChangedEvent> changes) {
+        final MailTemplate changeTemplate = mailTemplates.get("vacation-status-change");
+
+        final StringBuilder lines = new StringBuilder();
+        int count = 0;
+        for (final VacationStatusChangedEvent change : changes) {
+            if (count++ > 0) {
+                lines.append('\n');
+            }
+
+            // @formatter:off
+            changeTemplate.renderTo(lines, Map.of(
+                "title", change.getTitle(),
+                "startDate", format(change.getStartDate()),
+                "endDate", format(change.getEndDate()),
+                "from", change.getFrom(),
+                "to", change.getTo()
+            ));
+            // @formatter:on
+        }
+
+        final Map<String, Object> values = Map.of("count", count, "changes", lines);
+
+        final SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(String.format("%s <%s>", fromName, fromAddress));
+        message.setTo(to);
+        message.setSubject(mailTemplates.get("vacation-status-digest-subject").render(values));
+        message.setText(mailTemplates.get("vacation-status-digest").render(values));
+
+        return message;
+    }
+
+    private static String format(final Date date) {
+        return DATE_FORMAT.format(date.toInstant());
+    }
+}
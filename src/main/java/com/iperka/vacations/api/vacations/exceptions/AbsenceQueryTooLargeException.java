@@ -0,0 +1,27 @@
+package com.iperka.vacations.api.vacations.exceptions;
+
+import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.CustomException;
+
+/**
+ * Custom exception that will be thrown if an absence request contains more
+ * owners than allowed.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class AbsenceQueryTooLargeException extends Exception implements CustomException {
+    private static final String MESSAGE = "Too many owners.";
+    private static final String CAUSE = "A single request may contain at most %d owners.";
+
+    private final int maxOwners;
+
+    public AbsenceQueryTooLargeException(final int maxOwners) {
+        this.maxOwners = maxOwners;
+    }
+
+    public APIError toApiError() {
+        return new APIError("AbsenceQueryTooLarge", MESSAGE, String.format(CAUSE, maxOwners), "owners", 400);
+    }
+}
@@ -0,0 +1,27 @@
+package com.iperka.vacations.api.vacations.exceptions;
+
+import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.CustomException;
+
+/**
+ * Custom exception that will be thrown if a calendar request spans more
+ * days than allowed.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class CalendarRangeTooLargeException extends Exception implements CustomException {
+    private static final String MESSAGE = "Date range too large.";
+    private static final String CAUSE = "A single request may span at most %d days.";
+
+    private final int maxDays;
+
+    public CalendarRangeTooLargeException(final int maxDays) {
+        this.maxDays = maxDays;
+    }
+
+    public APIError toApiError() {
+        return new APIError("CalendarRangeTooLarge", MESSAGE, String.format(CAUSE, maxDays), "from,to", 400);
+    }
+}
@@ -0,0 +1,32 @@
+package com.iperka.vacations.api.vacations.exceptions;
+
+import com.iperka.vacations.api.helpers.APIError;
+import com.iperka.vacations.api.helpers.CustomException;
+
+/**
+ * Custom exception that will be thrown if a vacation overlaps another
+ * requested or accepted vacation of the same owner.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+public class VacationOverlapException extends Exception implements CustomException {
+    private static final String MESSAGE = "Vacation overlaps an existing vacation.";
+    private static final String CAUSE = "The date range overlaps the vacation with id %s.";
+
+    private final String conflictingId;
+
+    public VacationOverlapException(final String conflictingId) {
+        this.conflictingId = conflictingId;
+    }
+
+    public String getConflictingId() {
+        return conflictingId;
+    }
+
+    public APIError toApiError() {
+        return new APIError("VacationOverlap", MESSAGE, String.format(CAUSE, conflictingId), "startDate,endDate",
+                409);
+    }
+}
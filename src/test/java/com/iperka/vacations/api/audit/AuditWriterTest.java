@@ -0,0 +1,66 @@
+package com.iperka.vacations.api.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private AuditWriter auditWriter;
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void initUseCase() {
+        auditWriter = new AuditWriter();
+        ReflectionTestUtils.setField(auditWriter, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(auditWriter, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(auditWriter, "batchSize", 100);
+        ReflectionTestUtils.setField(auditWriter, "lingerMs", 50L);
+        ReflectionTestUtils.setField(auditWriter, "offerTimeoutMs", 10L);
+
+        doAnswer(invocation -> {
+            batches.add(invocation.<Collection<?>>getArgument(0).size());
+            return null;
+        }).when(mongoTemplate).insert(anyCollection(), eq(Audit.class));
+    }
+
+    @Test
+    void shouldWriteAuditsInBatches() {
+        auditWriter.start();
+        for (int i = 0; i < 250; i++) {
+            auditWriter.write(new Audit());
+        }
+        auditWriter.stop();
+
+        assertEquals(250, batches.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batches.stream().allMatch(size -> size <= 100));
+        assertTrue(batches.size() < 250);
+    }
+
+    @Test
+    void shouldWriteSynchronouslyIfStopped() {
+        auditWriter.start();
+        auditWriter.stop();
+        auditWriter.write(new Audit());
+
+        assertEquals(List.of(1), batches);
+    }
+}
@@ -0,0 +1,49 @@
+package com.iperka.vacations.api.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+    @Test
+    void shouldContainAddedValues() {
+        final CountingBloomFilter filter = new CountingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("hash-" + i);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("hash-" + i));
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearConfiguredProbability() {
+        final CountingBloomFilter filter = new CountingBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("hash-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void shouldRemoveValues() {
+        final CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("78e731027d8fd50ed642340b7c9a63b3");
+        filter.add("15626c5e0c749cb912f9d1ad48dba440");
+        filter.remove("78e731027d8fd50ed642340b7c9a63b3");
+
+        assertFalse(filter.mightContain("78e731027d8fd50ed642340b7c9a63b3"));
+        assertTrue(filter.mightContain("15626c5e0c749cb912f9d1ad48dba440"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.iperka.vacations.api.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import com.iperka.vacations.api.helpers.exceptions.InvalidCursorException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class CursorTest {
+    @Test
+    void shouldEncodeAndDecodeCursor() throws InvalidCursorException {
+        final Cursor cursor = new Cursor(new Date(1641921152721L), "61d48d95c3f245006c2caff3");
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+        assertNull(Cursor.decode(""));
+        assertNull(Cursor.decode(null));
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("YWJjOmRlZg"));
+        assertThrows(InvalidCursorException.class, () -> Cursor.decode("MTIzNDo"));
+    }
+
+    @Test
+    void shouldBuildCursorPage() {
+        CursorPage<Integer> page = CursorPage.of(List.of(1, 2, 3), 2, true, i -> new Cursor(new Date(i), "" + i));
+        assertEquals(List.of(1, 2), page.getContent());
+        assertEquals(new Cursor(new Date(2), "2"), page.getNext());
+        assertTrue(page.isFirst());
+        assertFalse(page.isLast());
+
+        page = CursorPage.of(List.of(3), 2, false, i -> new Cursor(new Date(i), "" + i));
+        assertEquals(List.of(3), page.getContent());
+        assertTrue(page.isLast());
+        assertEquals(null, new Metadata(page, null).getNextCursor());
+    }
+}
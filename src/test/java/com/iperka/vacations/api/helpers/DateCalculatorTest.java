@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -54,4 +57,45 @@ class DateCalculatorTest {
                             Optional.empty());
                 });
     }
+
+    @Test
+    void shouldCountBusinessDaysInClosedForm() {
+        long[] holidays = DateCalculator.toSortedEpochDays(List.of(
+                LocalDate.of(2021, 12, 24),
+                LocalDate.of(2021, 12, 25), // Saturday, ignored
+                LocalDate.of(2021, 12, 24)));
+        assertEquals(1, holidays.length);
+
+        // Compare against naive iteration over multiple years
+        LocalDate start = LocalDate.of(2019, 3, 7);
+        for (int offset = 0; offset < 1200; offset += 37) {
+            LocalDate end = start.plusDays(offset);
+            long expected = start.datesUntil(end)
+                    .filter(date -> date.getDayOfWeek().getValue() < 6)
+                    .filter(date -> !date.equals(LocalDate.of(2021, 12, 24)))
+                    .count();
+            assertEquals(expected, DateCalculator.countBusinessDays(start.toEpochDay(), end.toEpochDay(), holidays));
+        }
+
+        assertEquals(0, DateCalculator.countBusinessDays(10, 10, holidays));
+    }
+
+    @Test
+    void shouldDistributeDaysByMonth() {
+        long[] holidays = DateCalculator.toSortedEpochDays(List.of());
+
+        // 2021-12-27 (Monday) until 2022-01-05: 5 days in December, 3 in January
+        Map<YearMonth, Double> daysByMonth = DateCalculator.distributeDaysByMonth(LocalDate.of(2021, 12, 27),
+                LocalDate.of(2022, 1, 5), 6.5, holidays);
+        assertEquals(Map.of(YearMonth.of(2021, 12), 5d, YearMonth.of(2022, 1), 1.5d), daysByMonth);
+
+        double[] year = new double[12];
+        DateCalculator.addDaysByMonth(LocalDate.of(2021, 12, 27), LocalDate.of(2022, 1, 5), 6.5, holidays,
+                Year.of(2022), year);
+        assertEquals(1.5d, year[0]);
+
+        // Weekend only range counts as one day of the start month
+        assertEquals(Map.of(YearMonth.of(2022, 1), 0.5d), DateCalculator
+                .distributeDaysByMonth(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 2), 0.5, holidays));
+    }
 }
@@ -0,0 +1,122 @@
+package com.iperka.vacations.api.helpers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iperka.vacations.api.VacationsApiApplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares building and serializing the lean {@link GenericResponse} with
+ * the envelope used until version 1.0.13. Allocations per response are
+ * reported by the GC profiler as {@code gc.alloc.rate.norm}. Both write the
+ * same payload, which is asserted by {@link GenericResponseSerializerTest}.
+ * Not executed by the test suite, run the main method from the test
+ * classpath.
+ *
+ * @author Michael Beutler
+ * @version 1.0.1
+ * @since 1.0.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericResponseBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<String> data;
+
+    @Setup
+    public void setup() {
+        data = List.of("61d48d95c3f245006c2caff3", "61d48d95c3f245006c2caff4", "61d48d95c3f245006c2caff5");
+    }
+
+    @Benchmark
+    public byte[] legacy() throws JsonProcessingException {
+        final LegacyResponse<List<String>> response = new LegacyResponse<>(HttpStatus.OK, data);
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] lean() throws JsonProcessingException {
+        final GenericResponse<List<String>> response = new GenericResponse<>(HttpStatus.OK, data);
+        return mapper.writeValueAsBytes(response.build().getBody());
+    }
+
+    /**
+     * Envelope until version 1.0.13, serialized by the bean serializer.
+     */
+    @Data
+    @Slf4j
+    public static class LegacyResponse<T> {
+        private String version = "v" + VacationsApiApplication.class.getPackage().getImplementationVersion();
+        private String host = getHostname();
+        private HttpStatus status;
+        private String message;
+        private final Date timestamp = new Date();
+        private T data;
+        private Metadata metadata;
+        private List<APIError> errors = new ArrayList<>();
+
+        public LegacyResponse(final HttpStatus status, final T data) {
+            this.status = status;
+            this.message = status.getReasonPhrase();
+            this.data = data;
+            // Previously logged by build()
+            log.debug("Status: {}; Message: {}; Errors: {}", this.getStatus(), this.getMessage(),
+                    this.getErrors().size());
+        }
+
+        private static String getHostname() {
+            try {
+                return InetAddress.getLocalHost().getHostName();
+            } catch (final UnknownHostException e) {
+                return "unknown";
+            }
+        }
+
+        public int getStatus() {
+            return status.value();
+        }
+
+        public long getTimestamp() {
+            return timestamp.getTime();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        // @formatter:off
+        new Runner(new OptionsBuilder()
+            .include(GenericResponseBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()
+        ).run();
+        // @formatter:on
+    }
+}
@@ -0,0 +1,74 @@
+package com.iperka.vacations.api.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpStatus;
+
+class GenericResponseSerializerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void shouldWriteFieldsInOrder() throws Exception {
+        final JsonNode json = mapper.readTree(mapper.writeValueAsString(new GenericResponse<>(HttpStatus.OK, "Test")));
+
+        final List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("version", "host", "status", "message", "timestamp", "data", "metadata", "errors"),
+                fields);
+        assertEquals(200, json.get("status").asInt());
+        assertEquals("OK", json.get("message").asText());
+        assertEquals("Test", json.get("data").asText());
+        assertTrue(json.get("metadata").isNull());
+        assertTrue(json.get("timestamp").isNumber());
+    }
+
+    @Test
+    void shouldWriteEmptyErrors() throws Exception {
+        final GenericResponse<?> response = new GenericResponse<>(HttpStatus.OK);
+
+        final JsonNode json = mapper.readTree(mapper.writeValueAsString(response));
+
+        assertTrue(json.get("errors").isArray());
+        assertEquals(0, json.get("errors").size());
+        assertTrue(response.getErrors().isEmpty());
+    }
+
+    @Test
+    void shouldWriteErrorsAndMetadata() throws Exception {
+        final GenericResponse<List<String>> response = GenericResponse.fromPage(HttpStatus.OK,
+                new PageImpl<>(List.of("Test1", "Test2")));
+        response.addError(new APIError("NotFound", "Not found.", 404));
+
+        final JsonNode json = mapper.readTree(mapper.writeValueAsString(response));
+
+        assertEquals(2, json.get("data").size());
+        assertEquals(1, json.get("metadata").get("page").asInt());
+        assertEquals(1, json.get("errors").size());
+        assertEquals("NotFound", json.get("errors").get(0).get("type").asText());
+    }
+
+    @Test
+    void shouldWriteSamePayloadAsLegacyEnvelope() throws Exception {
+        final List<String> data = List.of("61d48d95c3f245006c2caff3", "61d48d95c3f245006c2caff4");
+
+        final ObjectNode lean = (ObjectNode) mapper
+                .readTree(mapper.writeValueAsBytes(new GenericResponse<>(HttpStatus.OK, data).build().getBody()));
+        final ObjectNode legacy = (ObjectNode) mapper
+                .readTree(mapper.writeValueAsBytes(new GenericResponseBenchmark.LegacyResponse<>(HttpStatus.OK, data)));
+
+        // Host and timestamp are resolved per response
+        lean.remove(List.of("host", "timestamp"));
+        legacy.remove(List.of("host", "timestamp"));
+        assertEquals(legacy, lean);
+    }
+}
\ No newline at end of file
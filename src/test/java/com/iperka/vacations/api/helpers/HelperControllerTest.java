@@ -0,0 +1,54 @@
+package com.iperka.vacations.api.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HelperControllerTest {
+    private HelperController helperController;
+
+    @BeforeEach
+    void initUseCase() throws IOException {
+        helperController = new HelperController();
+        ReflectionTestUtils.setField(helperController, "oauthRedirect", new ClassPathResource("static/oauth2-redirect.html"));
+        ReflectionTestUtils.setField(helperController, "tea", new ClassPathResource("static/tea.html"));
+        ReflectionTestUtils.setField(helperController, "favicon", new ClassPathResource("static/favicon.ico"));
+        ReflectionTestUtils.setField(helperController, "maxAgeSeconds", 60L);
+        helperController.initialize();
+    }
+
+    @Test
+    void shouldServeFileWithEtag() throws IOException {
+        final ResponseEntity<byte[]> response = helperController.getFavicon(null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(new ClassPathResource("static/favicon.ico").getInputStream().readAllBytes(),
+                response.getBody());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        assertEquals(34, response.getHeaders().getETag().length());
+    }
+
+    @Test
+    void shouldAnswerMatchingEtagWithNotModified() {
+        final String etag = helperController.getOauthRedirect(null).getHeaders().getETag();
+        final ResponseEntity<byte[]> response = helperController.getOauthRedirect("\"other\", " + etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldServeTea() {
+        assertEquals(HttpStatus.I_AM_A_TEAPOT, helperController.getTea().getStatusCode());
+    }
+}
@@ -0,0 +1,47 @@
+package com.iperka.vacations.api.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HostIdentityTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void resetDefaultHost() {
+        GenericResponse.setDefaultHost(HostIdentity.UNKNOWN);
+    }
+
+    private HostIdentity hostIdentity(final String configuredHostname) {
+        final HostIdentity hostIdentity = new HostIdentity();
+        ReflectionTestUtils.setField(hostIdentity, "configuredHostname", configuredHostname);
+        ReflectionTestUtils.setField(hostIdentity, "meterRegistry", meterRegistry);
+        hostIdentity.initialize();
+        return hostIdentity;
+    }
+
+    @Test
+    void shouldUseConfiguredHostname() {
+        final HostIdentity hostIdentity = hostIdentity(" vacations-api-1 ");
+
+        assertEquals("vacations-api-1", hostIdentity.getHostname());
+        assertEquals("vacations-api-1", new GenericResponse<>(HttpStatus.OK).getHost());
+        assertNull(meterRegistry.find("api.host.resolution").timer());
+    }
+
+    @Test
+    void shouldResolveHostnameOnce() {
+        final HostIdentity hostIdentity = hostIdentity("");
+
+        assertNotNull(hostIdentity.getHostname());
+        assertEquals(hostIdentity.getHostname(), new GenericResponse<>(HttpStatus.OK).getHost());
+        assertEquals(1, meterRegistry.get("api.host.resolution").timer().count());
+    }
+}
@@ -0,0 +1,118 @@
+package com.iperka.vacations.api.helpers.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CaptchaValidatorServiceImplTest {
+    private static final String CLIENT = "192.0.2.1";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer verifier;
+    private CaptchaValidatorServiceImpl captchaValidatorService;
+
+    @BeforeEach
+    void initUseCase() throws IOException {
+        // Local stub of the reCAPTCHA verifier, accepts the token "valid" only
+        verifier = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        verifier.createContext("/siteverify", exchange -> {
+            requests.incrementAndGet();
+            final String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            if (body.contains("response=slow")) {
+                try {
+                    Thread.sleep(1000L);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            final byte[] response = (body.contains("response=valid&") || body.endsWith("response=valid")
+                    ? "{\"success\": true, \"challenge_ts\": \"2022-01-11T17:12:32Z\", \"hostname\": \"localhost\"}"
+                    : "{\"success\": false, \"error-codes\": [\"invalid-input-response\"]}")
+                            .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        verifier.setExecutor(Executors.newCachedThreadPool());
+        verifier.start();
+
+        captchaValidatorService = new CaptchaValidatorServiceImpl();
+        ReflectionTestUtils.setField(captchaValidatorService, "recaptchaSecret", "secret");
+        ReflectionTestUtils.setField(captchaValidatorService, "verifyUrl",
+                "http://localhost:" + verifier.getAddress().getPort() + "/siteverify");
+        ReflectionTestUtils.setField(captchaValidatorService, "connectTimeoutMs", 500L);
+        ReflectionTestUtils.setField(captchaValidatorService, "requestTimeoutMs", 250L);
+        ReflectionTestUtils.setField(captchaValidatorService, "verdictTtlSeconds", 10L);
+        ReflectionTestUtils.setField(captchaValidatorService, "verdictMaximumSize", 100L);
+        ReflectionTestUtils.setField(captchaValidatorService, "objectMapper",
+                new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        ReflectionTestUtils.setField(captchaValidatorService, "meterRegistry", meterRegistry);
+        captchaValidatorService.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        verifier.stop(0);
+    }
+
+    @Test
+    void shouldVerifyTokenOnce() {
+        assertTrue(captchaValidatorService.validateCaptcha("valid", CLIENT));
+        assertTrue(captchaValidatorService.validateCaptcha("valid", CLIENT));
+
+        assertEquals(1, requests.get());
+        assertEquals(1, meterRegistry.get("captcha.verification").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void shouldVerifyTokenAgainForOtherClient() {
+        assertTrue(captchaValidatorService.validateCaptcha("valid", CLIENT));
+        assertTrue(captchaValidatorService.validateCaptcha("valid", "192.0.2.2"));
+
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void shouldRejectInvalidToken() {
+        assertFalse(captchaValidatorService.validateCaptcha("invalid", CLIENT));
+        assertEquals(1, meterRegistry.get("captcha.verification").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void shouldRejectMissingTokenWithoutRequest() {
+        assertFalse(captchaValidatorService.validateCaptcha(null, CLIENT));
+        assertFalse(captchaValidatorService.validateCaptcha(" ", CLIENT));
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void shouldRejectTokenOnTimeoutWithoutCaching() {
+        assertFalse(captchaValidatorService.validateCaptcha("slow", CLIENT));
+        assertFalse(captchaValidatorService.validateCaptcha("slow", CLIENT));
+
+        assertEquals(2, meterRegistry.get("captcha.verification").tag("result", "error").timer().count());
+    }
+}
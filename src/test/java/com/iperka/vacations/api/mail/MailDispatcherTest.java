@@ -0,0 +1,132 @@
+package com.iperka.vacations.api.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherTest {
+    @Mock
+    private OutboxMailRepository outboxMailRepository;
+
+    @Mock
+    private JavaMailSender javaMailSender;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void initUseCase() {
+        mailDispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(mailDispatcher, "outboxMailRepository", outboxMailRepository);
+        ReflectionTestUtils.setField(mailDispatcher, "javaMailSender", javaMailSender);
+        ReflectionTestUtils.setField(mailDispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(mailDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailDispatcher, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(mailDispatcher, "maxBackoffSeconds", 100L);
+        mailDispatcher.initialize();
+    }
+
+    private static OutboxMail mail(final String to) {
+        final SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("iperka <no-reply@iperka.com>");
+        message.setTo(to);
+        message.setSubject("Test");
+        message.setText("Test");
+        return OutboxMail.of(message);
+    }
+
+    private double count(final String result) {
+        return meterRegistry.get("mail.outbox.mails").tag("result", result).counter().count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSendBatchOverOneConnection() {
+        final List<OutboxMail> batch = List.of(mail("a@iperka.com"), mail("b@iperka.com"));
+        final Date lease = batch.get(0).getNextAttemptAt();
+
+        mailDispatcher.dispatch(batch);
+
+        verify(javaMailSender, times(1)).send((SimpleMailMessage[]) any());
+        final ArgumentCaptor<Map<OutboxMail, Date>> leases = ArgumentCaptor.forClass(Map.class);
+        verify(outboxMailRepository).complete(leases.capture());
+        assertEquals(2, leases.getValue().size());
+        assertEquals(lease, leases.getValue().get(batch.get(0)));
+        for (final OutboxMail mail : batch) {
+            assertEquals(MailStatus.SENT, mail.getStatus());
+            assertEquals(1, mail.getAttempts());
+            assertNotNull(mail.getSentAt());
+        }
+        assertEquals(2, count("sent"));
+        assertEquals(1, meterRegistry.get("mail.outbox.send").timer().count());
+    }
+
+    @Test
+    void shouldRetryFailedMailsOnly() {
+        final OutboxMail sent = mail("a@iperka.com");
+        final OutboxMail rejected = mail("b@iperka.com");
+        doAnswer(invocation -> {
+            final SimpleMailMessage first = invocation.getArgument(0);
+            final Object failed = first.getTo()[0].equals("b@iperka.com") ? first : invocation.getArgument(1);
+            throw new MailSendException(Map.of(failed, new Exception("550 Mailbox unavailable")));
+        }).when(javaMailSender).send((SimpleMailMessage[]) any());
+
+        mailDispatcher.dispatch(List.of(sent, rejected));
+
+        assertEquals(MailStatus.SENT, sent.getStatus());
+        assertEquals(MailStatus.PENDING, rejected.getStatus());
+        assertNull(rejected.getSentAt());
+        assertNotNull(rejected.getLastError());
+        assertTrue(rejected.getNextAttemptAt().getTime() >= System.currentTimeMillis() + 29000L);
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("retried"));
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        final OutboxMail mail = mail("a@iperka.com");
+        mail.setAttempts(2);
+        doThrow(new MailAuthenticationException("535 Authentication failed")).when(javaMailSender)
+                .send((SimpleMailMessage[]) any());
+
+        mailDispatcher.dispatch(List.of(mail));
+
+        assertEquals(MailStatus.FAILED, mail.getStatus());
+        assertEquals(3, mail.getAttempts());
+        assertEquals(1, count("failed"));
+    }
+
+    @Test
+    void shouldBackOffExponentially() {
+        assertEquals(30000L, mailDispatcher.backoffMillis(1));
+        assertEquals(60000L, mailDispatcher.backoffMillis(2));
+        assertEquals(100000L, mailDispatcher.backoffMillis(3));
+        assertEquals(100000L, mailDispatcher.backoffMillis(64));
+    }
+}
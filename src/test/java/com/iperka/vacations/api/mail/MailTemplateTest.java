@@ -0,0 +1,34 @@
+package com.iperka.vacations.api.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class MailTemplateTest {
+    @Test
+    void shouldRenderPlaceholders() {
+        final MailTemplate template = MailTemplate.compile("test", "Hello {{ name }}, {{count}} change(s).\n");
+
+        assertEquals("Hello Michael, 3 change(s).", template.render(Map.of("name", "Michael", "count", 3)));
+    }
+
+    @Test
+    void shouldRenderTemplateWithoutPlaceholders() {
+        assertEquals("Hello", MailTemplate.compile("test", "Hello").render(Map.of()));
+    }
+
+    @Test
+    void shouldRejectMissingValue() {
+        final MailTemplate template = MailTemplate.compile("test", "Hello {{name}}");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+    }
+
+    @Test
+    void shouldRejectUnclosedPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("test", "Hello {{name"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.iperka.vacations.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+    @Mock
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder cachingJwtDecoder;
+
+    @BeforeEach
+    void initUseCase() {
+        cachingJwtDecoder = new CachingJwtDecoder(delegate, 100, new SimpleMeterRegistry());
+    }
+
+    private static Jwt jwt(final String token, final String keyId, final Instant expiresAt) {
+        return Jwt.withTokenValue(token).header("alg", "RS256").header("kid", keyId).subject("iperka|1")
+                .issuedAt(expiresAt.minusSeconds(3600)).expiresAt(expiresAt).build();
+    }
+
+    @Test
+    void shouldCacheValidatedToken() {
+        final Jwt jwt = jwt("token", "key-1", Instant.now().plusSeconds(3600));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertSame(jwt, cachingJwtDecoder.decode("token"));
+        assertSame(jwt, cachingJwtDecoder.decode("token"));
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void shouldNotCacheInvalidToken() {
+        when(delegate.decode("invalid")).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode("invalid"));
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode("invalid"));
+        verify(delegate, times(2)).decode("invalid");
+    }
+
+    @Test
+    void shouldDecodeAgainAfterKeyRemoval() {
+        final Jwt jwt = jwt("token", "key-1", Instant.now().plusSeconds(3600));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        cachingJwtDecoder.decode("token");
+        cachingJwtDecoder.invalidateKeys(Set.of("key-1"));
+        cachingJwtDecoder.decode("token");
+        verify(delegate, times(2)).decode("token");
+    }
+}
@@ -0,0 +1,110 @@
+package com.iperka.vacations.api.security;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.iperka.vacations.api.vacations.Vacation;
+import com.iperka.vacations.api.vacations.VacationMonth;
+import com.iperka.vacations.api.vacations.VacationStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link DiffPlan} with the reflective diff previously used by
+ * {@link Auditable}. Not executed by the test suite, run the main method
+ * from the test classpath.
+ *
+ * @author Michael Beutler
+ * @version 1.0.0
+ * @since 1.0.14
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffPlanBenchmark {
+    private Vacation before;
+    private Vacation after;
+
+    @Setup
+    public void setup() {
+        before = new Vacation();
+        before.setId("61d48d95c3f245006c2caff3");
+        before.setOwner("iperka|61d48d95c3f245006c2caff3");
+        before.setTitle("Ski Trip");
+        before.setStartDate(new Date(1641921152721L));
+        before.setEndDate(new Date(1642521152721L));
+        before.setDays(5);
+        before.setMonths(List.of(new VacationMonth(2022, 1, 5)));
+
+        after = new Vacation();
+        after.setId(before.getId());
+        after.setOwner(before.getOwner());
+        after.setTitle("Ski Trip Alps");
+        after.setStartDate(before.getStartDate());
+        after.setEndDate(new Date(1642607552721L));
+        after.setDays(6);
+        after.setStatus(VacationStatus.ACCEPTED);
+        after.setMonths(List.of(new VacationMonth(2022, 1, 6)));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> reflection() {
+        return reflectiveDiff(before, after);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> diffPlan() {
+        return DiffPlan.of(before.getClass()).diff(before, after);
+    }
+
+    /**
+     * Implementation of Auditable until version 1.0.13.
+     */
+    private static Map<String, Map<String, String>> reflectiveDiff(final Object before, final Object after) {
+        Map<String, Map<String, String>> diff = new HashMap<>();
+        for (Method m : before.getClass().getMethods()) {
+            if (m.getName().startsWith("get") && m.getParameterTypes().length == 0) {
+                try {
+                    Object beforeObject = m.invoke(before);
+                    Object afterObject = m.invoke(after);
+                    if (beforeObject == null || afterObject == null) {
+                        continue;
+                    }
+
+                    if (!beforeObject.equals(afterObject)) {
+                        Map<String, String> values = new HashMap<>();
+                        values.put("from", m.invoke(before).toString());
+                        values.put("to", m.invoke(after).toString());
+                        diff.put(m.getName().replace("get", "").toLowerCase(), values);
+                    }
+                } catch (Exception e) {
+                    // Ignored for benchmark
+                }
+            }
+        }
+        return diff;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DiffPlanBenchmark.class.getSimpleName()).build()).run();
+    }
+}
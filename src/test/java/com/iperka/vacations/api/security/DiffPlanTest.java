@@ -0,0 +1,71 @@
+package com.iperka.vacations.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Map;
+
+import com.iperka.vacations.api.vacations.Vacation;
+import com.iperka.vacations.api.vacations.VacationStatus;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+class DiffPlanTest {
+    @Data
+    @AllArgsConstructor
+    public static class Address {
+        private String city;
+        private String zip;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Person {
+        private String name;
+        private Address address;
+    }
+
+    @Test
+    void shouldCachePlanPerClass() {
+        assertSame(DiffPlan.of(Vacation.class), DiffPlan.of(Vacation.class));
+    }
+
+    @Test
+    void shouldReturnChangedProperties() {
+        final Vacation before = new Vacation();
+        before.setTitle("Ski Trip");
+        before.setStartDate(new Date(0L));
+        before.setDays(5);
+
+        final Vacation after = new Vacation();
+        after.setTitle("Ski Trip Alps");
+        after.setStartDate(new Date(0L));
+        after.setDays(5);
+        after.setStatus(VacationStatus.ACCEPTED);
+        after.setCreatedAt(before.getCreatedAt());
+        after.setUpdatedAt(before.getUpdatedAt());
+
+        final Map<String, Map<String, String>> diff = DiffPlan.of(Vacation.class).diff(before, after);
+
+        assertEquals(2, diff.size());
+        assertEquals(Map.of("from", "Ski Trip", "to", "Ski Trip Alps"), diff.get("title"));
+        assertEquals(Map.of("from", "requested", "to", "accepted"), diff.get("status"));
+    }
+
+    @Test
+    void shouldCompareNestedValues() {
+        final Person before = new Person("Michael", new Address("Zurich", "8000"));
+        final Person after = new Person("Michael", new Address("Bern", "8000"));
+
+        final Map<String, Map<String, String>> diff = DiffPlan.of(Person.class).diff(before, after);
+
+        assertEquals(1, diff.size());
+        assertTrue(diff.containsKey("address.city"));
+        assertEquals("Bern", diff.get("address.city").get("to"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.iperka.vacations.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.jwk.JWK;
+
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwkSetProviderTest {
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private JwkSetProvider jwkSetProvider;
+    private RSAKey key1;
+    private RSAKey key2;
+
+    @BeforeEach
+    void initUseCase() throws Exception {
+        key1 = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        file = directory.resolve("jwks.json");
+        write(key1);
+
+        jwkSetProvider = new JwkSetProvider();
+        ReflectionTestUtils.setField(jwkSetProvider, "location", file.toUri().toString());
+        ReflectionTestUtils.setField(jwkSetProvider, "refreshIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(jwkSetProvider, "minReloadIntervalSeconds", 0L);
+        ReflectionTestUtils.setField(jwkSetProvider, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(jwkSetProvider, "meterRegistry", new SimpleMeterRegistry());
+        jwkSetProvider.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        jwkSetProvider.shutdown();
+    }
+
+    private void write(final RSAKey... keys) throws Exception {
+        Files.writeString(file, new JWKSet(List.of(keys)).toString());
+    }
+
+    private static JWKSelector selector(final String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+
+    @Test
+    void shouldLoadLocalSetAtStartup() {
+        assertEquals(1, jwkSetProvider.get(selector("key-1"), null).size());
+        assertFalse(jwkSetProvider.get(selector("key-1"), null).get(0).isPrivate());
+    }
+
+    @Test
+    void shouldReloadOnUnknownKeyId() throws Exception {
+        write(key1, key2);
+
+        assertEquals(1, jwkSetProvider.get(selector("key-2"), null).size());
+    }
+
+    @Test
+    void shouldLimitReloads() throws Exception {
+        ReflectionTestUtils.setField(jwkSetProvider, "minReloadIntervalSeconds", 3600L);
+        write(key1, key2);
+
+        assertTrue(jwkSetProvider.get(selector("key-2"), null).isEmpty());
+    }
+
+    @Test
+    void shouldFindRotatedKeyForConcurrentLookups() throws Exception {
+        ReflectionTestUtils.setField(jwkSetProvider, "minReloadIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(jwkSetProvider, "lastLoadAttempt", 0L);
+        write(key1, key2);
+
+        // Both lookups miss the key before either one reloads the set
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final ThreadLocal<Boolean> waited = ThreadLocal.withInitial(() -> false);
+        final JWKMatcher matcher = new JWKMatcher(null, null, null, null, Set.of("key-2"), false, false) {
+            @Override
+            public boolean matches(final JWK key) {
+                if (!waited.get()) {
+                    waited.set(true);
+                    try {
+                        barrier.await(5, TimeUnit.SECONDS);
+                    } catch (final Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.matches(key);
+            }
+        };
+        final JWKSelector selector = new JWKSelector(matcher);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Callable<List<JWK>> lookup = () -> jwkSetProvider.get(selector, null);
+            for (Future<List<JWK>> result : executor.invokeAll(List.of(lookup, lookup))) {
+                assertEquals(1, result.get().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReportRemovedKeys() throws Exception {
+        final List<Set<String>> removed = new ArrayList<>();
+        jwkSetProvider.setRemovedKeysListener(removed::add);
+        write(key2);
+
+        assertTrue(jwkSetProvider.load());
+        assertEquals(List.of(Set.of("key-1")), removed);
+    }
+}
@@ -0,0 +1,51 @@
+package com.iperka.vacations.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Instant;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class ScopedJwtAuthenticationConverterTest {
+    private static final Jwt JWT = Jwt.withTokenValue("token").header("alg", "RS256").subject("iperka|1")
+            .claim("scope", "vacations:read users:all:read openid").issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(3600)).build();
+
+    private final ScopedJwtAuthenticationToken authentication = (ScopedJwtAuthenticationToken) new ScopedJwtAuthenticationConverter()
+            .convert(JWT);
+
+    @Test
+    void shouldResolveKnownScopes() {
+        assertEquals(EnumSet.of(Scope.VACATIONS_READ, Scope.USERS_ALL_READ), authentication.getScopes());
+        assertEquals("iperka|1", authentication.getName());
+        assertEquals(3, authentication.getAuthorities().size());
+    }
+
+    @Test
+    void shouldCheckScopesWithoutAuthorities() {
+        assertTrue(Helpers.hasScope(Scopes.VACATIONS_READ, authentication));
+        assertFalse(Helpers.hasScope(Scopes.VACATIONS_ALL_READ, authentication));
+        assertTrue(Helpers.hasScope("openid", authentication));
+    }
+
+    @Test
+    void shouldEvaluateKnownAuthoritiesFromScopes() {
+        final MethodSecurityExpressionOperations delegate = mock(MethodSecurityExpressionOperations.class);
+        final ScopeSecurityExpressionRoot root = new ScopeSecurityExpressionRoot(delegate, authentication);
+
+        assertTrue(root.hasAnyAuthority(Scopes.SCOPE_USERS_READ, Scopes.SCOPE_USERS_ALL_READ));
+        assertFalse(root.hasAuthority(Scopes.SCOPE_AUDITS_ALL_READ));
+        verifyNoInteractions(delegate);
+
+        root.hasAuthority("SCOPE_openid");
+        verify(delegate).hasAuthority("SCOPE_openid");
+    }
+}
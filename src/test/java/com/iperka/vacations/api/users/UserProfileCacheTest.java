@@ -0,0 +1,109 @@
+package com.iperka.vacations.api.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.auth0.json.mgmt.users.User;
+import com.iperka.vacations.api.users.auth0.ManagementService;
+import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
+import com.iperka.vacations.api.users.dto.SimpleUserDTO;
+import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+    @Mock
+    private ManagementService managementService;
+
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    void initUseCase() {
+        userProfileCache = new UserProfileCache();
+        ReflectionTestUtils.setField(userProfileCache, "managementService", managementService);
+        ReflectionTestUtils.setField(userProfileCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userProfileCache, "maximumWeight", 10000L);
+        ReflectionTestUtils.setField(userProfileCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(userProfileCache, "negativeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(userProfileCache, "batchParallelism", 2);
+        userProfileCache.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        userProfileCache.shutdown();
+    }
+
+    @Test
+    void shouldCacheProfile() throws Exception {
+        final User user = mock(User.class);
+        when(user.getId()).thenReturn("iperka|1");
+        when(user.getEmail()).thenReturn("john@example.com");
+        when(managementService.getUserById("iperka|1")).thenReturn(Optional.of(user));
+
+        assertEquals("john", userProfileCache.getProfile("iperka_1").getUsername());
+        assertEquals("john", userProfileCache.getProfile("iperka|1").getUsername());
+        verify(managementService, times(1)).getUserById("iperka|1");
+    }
+
+    @Test
+    void shouldCacheUnknownUser() throws Exception {
+        when(managementService.getUserById("iperka|2")).thenThrow(new UserNotFoundException());
+
+        assertThrows(UserNotFoundException.class, () -> userProfileCache.getProfile("iperka|2"));
+        assertThrows(UserNotFoundException.class, () -> userProfileCache.getProfile("iperka|2"));
+        verify(managementService, times(1)).getUserById("iperka|2");
+    }
+
+    @Test
+    void shouldNotCacheConfigurationErrors() throws Exception {
+        when(managementService.getUserById("iperka|3")).thenThrow(new NotConfiguredException());
+
+        assertThrows(NotConfiguredException.class, () -> userProfileCache.getProfile("iperka|3"));
+        assertThrows(NotConfiguredException.class, () -> userProfileCache.getProfile("iperka|3"));
+        verify(managementService, times(2)).getUserById("iperka|3");
+    }
+
+    @Test
+    void shouldLoadMissingProfilesOfBatch() throws Exception {
+        final User user = mock(User.class);
+        when(user.getId()).thenReturn("iperka|4");
+        when(user.getUsername()).thenReturn("jane");
+        when(managementService.getUserById("iperka|4")).thenReturn(Optional.of(user));
+        when(managementService.getUserById("iperka|5")).thenThrow(new UserNotFoundException());
+        userProfileCache.getProfile("iperka|4");
+
+        final Map<String, SimpleUserDTO> profiles = userProfileCache
+                .getProfiles(List.of("iperka_4", "iperka|4", "iperka|5"));
+
+        assertEquals(2, profiles.size());
+        assertEquals("jane", profiles.get("iperka_4").getUsername());
+        assertEquals("jane", profiles.get("iperka|4").getUsername());
+        verify(managementService, times(1)).getUserById("iperka|4");
+        verify(managementService, times(1)).getUserById("iperka|5");
+    }
+
+    @Test
+    void shouldPropagateConfigurationErrorsOfBatch() throws Exception {
+        when(managementService.getUserById("iperka|6")).thenThrow(new NotConfiguredException());
+
+        assertThrows(NotConfiguredException.class, () -> userProfileCache.getProfiles(List.of("iperka|6")));
+    }
+}
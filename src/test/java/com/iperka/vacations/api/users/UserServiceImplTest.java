@@ -0,0 +1,97 @@
+package com.iperka.vacations.api.users;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.iperka.vacations.api.users.exceptions.EmailAndOrPhoneAlreadyConnectedException;
+import com.iperka.vacations.api.users.exceptions.UserNotFoundException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserHashFilter userHashFilter;
+
+    private UserServiceImpl userService;
+
+    private User user;
+
+    @BeforeEach
+    void initUseCase() {
+        userService = new UserServiceImpl();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "userHashFilter", userHashFilter);
+
+        user = new User();
+        user.setOwner("iperka|1");
+        user.setEmailHash("78e731027d8fd50ed642340b7c9a63b3");
+        user.setPhoneHash("15626c5e0c749cb912f9d1ad48dba440");
+    }
+
+    @Test
+    void shouldRejectExistingUser() {
+        when(userRepository.existsByEmailHashOrPhoneHashOrOwner(user.getEmailHash(), user.getPhoneHash(),
+                user.getOwner())).thenReturn(true);
+
+        assertThrows(EmailAndOrPhoneAlreadyConnectedException.class, () -> userService.create(user));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldMapDuplicateKeyOfConcurrentSignup() {
+        when(userRepository.save(user)).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(EmailAndOrPhoneAlreadyConnectedException.class, () -> userService.create(user));
+    }
+
+    @Test
+    void shouldRejectUpdateToConnectedHash() {
+        user.setId("id");
+        when(userRepository.findById("id")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(EmailAndOrPhoneAlreadyConnectedException.class,
+                () -> userService.updateByOwner(user, "iperka|1"));
+        verify(userHashFilter, never()).add(any(User.class));
+    }
+
+    @Test
+    void shouldSkipDatabaseForUnknownHash() {
+        when(userHashFilter.mightContainEmailHash(user.getEmailHash())).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> userService.findByEmailHash(user.getEmailHash()));
+        verify(userRepository, never()).findByEmailHash(anyString());
+    }
+
+    @Test
+    void shouldResolveHashesWithSingleQuery() {
+        final List<String> emailHashes = List.of(user.getEmailHash(), "unknown");
+        final List<String> phoneHashes = List.of("fa2c1b36b0d7d7e5bcf5a4d8c6e4b1a3");
+        when(userHashFilter.filterEmailHashes(Set.copyOf(emailHashes))).thenReturn(emailHashes);
+        when(userHashFilter.filterPhoneHashes(Set.copyOf(phoneHashes))).thenReturn(phoneHashes);
+        when(userRepository.findAllByEmailHashInOrPhoneHashIn(Set.copyOf(emailHashes), Set.copyOf(phoneHashes)))
+                .thenReturn(List.of(user));
+
+        assertEquals(List.of(user), userService.findAllByHashes(emailHashes, phoneHashes));
+        verify(userHashFilter).recordFalsePositives(2);
+    }
+}
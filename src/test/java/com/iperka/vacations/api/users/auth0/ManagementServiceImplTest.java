@@ -0,0 +1,158 @@
+package com.iperka.vacations.api.users.auth0;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.auth0.client.mgmt.ManagementAPI;
+import com.auth0.exception.APIException;
+import com.auth0.exception.Auth0Exception;
+import com.auth0.json.auth.TokenHolder;
+import com.auth0.json.mgmt.users.User;
+import com.auth0.net.Request;
+import com.iperka.vacations.api.users.auth0.exceptions.NotConfiguredException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ManagementServiceImplTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManagementAPI managementAPI = mock(ManagementAPI.class, Answers.RETURNS_DEEP_STUBS);
+
+    private ManagementServiceImpl managementService;
+
+    @BeforeEach
+    void initUseCase() throws Auth0Exception {
+        managementService = spy(new ManagementServiceImpl());
+        ReflectionTestUtils.setField(managementService, "domain", "https://iperka.eu.auth0.com/");
+        ReflectionTestUtils.setField(managementService, "tokenRefreshMarginSeconds", 300L);
+        ReflectionTestUtils.setField(managementService, "tokenFailureBackoffSeconds", 60L);
+        ReflectionTestUtils.setField(managementService, "meterRegistry", meterRegistry);
+        doReturn(managementAPI).when(managementService).createManagementAPI(anyString());
+        managementService.initialize();
+
+        final User user = mock(User.class);
+        when(user.getEmail()).thenReturn("test@iperka.com");
+        when(managementAPI.users().get(anyString(), any()).execute()).thenReturn(user);
+    }
+
+    @AfterEach
+    void shutdown() {
+        managementService.shutdown();
+    }
+
+    private static TokenHolder token(final long expiresIn) {
+        final TokenHolder token = mock(TokenHolder.class);
+        when(token.getAccessToken()).thenReturn("token");
+        when(token.getExpiresIn()).thenReturn(expiresIn);
+        return token;
+    }
+
+    private double refreshes(final String result) {
+        return meterRegistry.get("auth0.management.token.refreshes").tag("result", result).counter().count();
+    }
+
+    @Test
+    void shouldReuseToken() throws Exception {
+        final TokenHolder token = token(86400L);
+        doReturn(token).when(managementService).requestToken();
+
+        assertEquals(Optional.of("test@iperka.com"), managementService.getEmail("auth0_1"));
+        assertEquals(Optional.of("test@iperka.com"), managementService.getEmail("auth0_1"));
+
+        verify(managementService, times(1)).requestToken();
+        assertEquals(1, refreshes("success"));
+    }
+
+    @Test
+    void shouldRequestTokenOnceForConcurrentCallers() throws Exception {
+        final TokenHolder token = token(86400L);
+        doAnswer(invocation -> {
+            Thread.sleep(200L);
+            return token;
+        }).when(managementService).requestToken();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Optional<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(() -> managementService.getEmail("auth0_1"));
+            }
+            for (Future<Optional<String>> result : executor.invokeAll(calls)) {
+                assertEquals(Optional.of("test@iperka.com"), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(managementService, times(1)).requestToken();
+    }
+
+    @Test
+    void shouldFailFastAfterFailedRequest() throws Exception {
+        doThrow(new Auth0Exception("Service Unavailable")).when(managementService).requestToken();
+
+        assertThrows(NotConfiguredException.class, () -> managementService.getEmail("auth0_1"));
+        assertThrows(NotConfiguredException.class, () -> managementService.getEmail("auth0_1"));
+        assertThrows(NotConfiguredException.class, () -> managementService.getEmail("auth0_1"));
+
+        verify(managementService, times(1)).requestToken();
+        assertEquals(1, refreshes("failure"));
+    }
+
+    @Test
+    void shouldRetryRefreshInBackground() throws Exception {
+        ReflectionTestUtils.setField(managementService, "tokenFailureBackoffSeconds", 1L);
+        // Refresh is due after half of the lifetime, the first refresh fails
+        final TokenHolder shortLived = token(2L);
+        final TokenHolder renewed = token(86400L);
+        doReturn(shortLived).doThrow(new Auth0Exception("Service Unavailable")).doReturn(renewed)
+                .when(managementService).requestToken();
+
+        assertEquals(Optional.of("test@iperka.com"), managementService.getEmail("auth0_1"));
+
+        verify(managementService, timeout(5000L).times(3)).requestToken();
+        assertEquals(Optional.of("test@iperka.com"), managementService.getEmail("auth0_1"));
+        verify(managementService, times(3)).requestToken();
+        assertEquals(1, refreshes("failure"));
+    }
+
+    @Test
+    void shouldRequestNewTokenAfterUnauthorized() throws Exception {
+        final TokenHolder token = token(86400L);
+        doReturn(token).when(managementService).requestToken();
+        @SuppressWarnings("unchecked")
+        final Request<User> request = mock(Request.class);
+        when(managementAPI.users().get(anyString(), any())).thenReturn(request);
+        when(request.execute()).thenThrow(new APIException("Unauthorized", 401, null))
+                .thenReturn(mock(User.class));
+
+        assertThrows(NotConfiguredException.class, () -> managementService.getEmail("auth0_1"));
+        managementService.getEmail("auth0_1");
+
+        verify(managementService, times(2)).requestToken();
+    }
+}
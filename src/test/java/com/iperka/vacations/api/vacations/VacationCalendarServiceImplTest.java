@@ -0,0 +1,128 @@
+package com.iperka.vacations.api.vacations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class VacationCalendarServiceImplTest {
+    @Mock
+    private VacationRepository vacationRepository;
+
+    @Mock
+    private VacationOccupancyRepository vacationOccupancyRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private VacationCalendarServiceImpl vacationCalendarService;
+
+    @BeforeEach
+    void initUseCase() {
+        vacationCalendarService = new VacationCalendarServiceImpl();
+        ReflectionTestUtils.setField(vacationCalendarService, "vacationRepository", vacationRepository);
+        ReflectionTestUtils.setField(vacationCalendarService, "vacationOccupancyRepository",
+                vacationOccupancyRepository);
+        ReflectionTestUtils.setField(vacationCalendarService, "meterRegistry", meterRegistry);
+        vacationCalendarService.initialize();
+    }
+
+    private static Date date(final LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Vacation vacation(final String owner, final LocalDate from, final LocalDate to) {
+        Vacation vacation = new Vacation();
+        vacation.setOwner(owner);
+        vacation.setStartDate(date(from));
+        vacation.setEndDate(date(to));
+        return vacation;
+    }
+
+    @Test
+    void shouldListAbsentOwnersByDay() {
+        final VacationOccupancy alice = VacationOccupancy.of("alice", 2022);
+        alice.occupy(LocalDate.of(2022, 6, 28), LocalDate.of(2022, 7, 2));
+        final VacationOccupancy bob = VacationOccupancy.of("bob", 2022);
+        bob.occupy(LocalDate.of(2022, 7, 2), LocalDate.of(2022, 7, 10));
+        when(vacationOccupancyRepository.findAllById(List.of("alice/2022", "bob/2022")))
+                .thenReturn(List.of(alice, bob));
+
+        final Map<LocalDate, List<String>> absences = vacationCalendarService
+                .findAbsentOwnersByDay(List.of("alice", "bob"), LocalDate.of(2022, 7, 1), LocalDate.of(2022, 7, 3));
+
+        assertEquals(Map.of(LocalDate.of(2022, 7, 1), List.of("alice"), LocalDate.of(2022, 7, 2),
+                List.of("alice", "bob"), LocalDate.of(2022, 7, 3), List.of("bob")), absences);
+        verify(vacationRepository, never()).findAllOverlapping(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldBuildMissingOccupanciesOnRead() {
+        final VacationOccupancy alice = VacationOccupancy.of("alice", 2022);
+        when(vacationOccupancyRepository.findAllById(List.of("alice/2022", "alice/2023", "bob/2022", "bob/2023")))
+                .thenReturn(List.of(alice));
+        when(vacationRepository.findAllOverlapping(eq(Set.of("alice", "bob")), any(), any(), eq(VacationStatus.OCCUPYING)))
+                .thenReturn(List.of(vacation("bob", LocalDate.of(2022, 12, 31), LocalDate.of(2023, 1, 1))));
+
+        final Map<LocalDate, List<String>> absences = vacationCalendarService.findAbsentOwnersByDay(
+                List.of("alice", "bob"), LocalDate.of(2022, 12, 30), LocalDate.of(2023, 1, 1));
+
+        assertEquals(List.of(), absences.get(LocalDate.of(2022, 12, 30)));
+        assertEquals(List.of("bob"), absences.get(LocalDate.of(2022, 12, 31)));
+        assertEquals(List.of("bob"), absences.get(LocalDate.of(2023, 1, 1)));
+
+        // alice/2023 has no vacations but is stored as well, so it won't be built again
+        verify(vacationOccupancyRepository, times(3)).insert(any(VacationOccupancy.class));
+        assertEquals(3, meterRegistry.get("vacations.occupancy.builds").tag("trigger", "read").counter().count());
+    }
+
+    @Test
+    void shouldRebuildOccupanciesOnWrite() {
+        when(vacationRepository.findAllOverlapping(eq(List.of("alice")), any(), any(), eq(VacationStatus.OCCUPYING)))
+                .thenReturn(List.of(vacation("alice", LocalDate.of(2022, 1, 3), LocalDate.of(2022, 1, 4))));
+
+        vacationCalendarService.refresh("alice", List.of(2022));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Iterable<VacationOccupancy>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(vacationOccupancyRepository).saveAll(saved.capture());
+        final VacationOccupancy occupancy = saved.getValue().iterator().next();
+        assertEquals("alice/2022", occupancy.getId());
+        assertEquals(List.of(3, 4), occupied(occupancy));
+    }
+
+    @Test
+    void shouldSkipRefreshWithoutYears() {
+        vacationCalendarService.refresh("alice", List.of());
+
+        verify(vacationOccupancyRepository, never()).saveAll(anyIterable());
+    }
+
+    private static List<Integer> occupied(final VacationOccupancy occupancy) {
+        final List<Integer> days = new ArrayList<>();
+        occupancy.forEachOccupied(1, 366, days::add);
+        return days;
+    }
+}
@@ -0,0 +1,75 @@
+package com.iperka.vacations.api.vacations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class VacationExporterTest {
+    private VacationExporter vacationExporter;
+
+    @BeforeEach
+    void initUseCase() {
+        vacationExporter = new VacationExporter();
+        ReflectionTestUtils.setField(vacationExporter, "objectMapper", new ObjectMapper());
+    }
+
+    private static Vacation vacation(final String title) {
+        final Vacation vacation = new Vacation();
+        vacation.setId("1");
+        vacation.setOwner("test");
+        vacation.setTitle(title);
+        vacation.setStartDate(new Date(0L));
+        vacation.setEndDate(new Date(86400000L));
+        vacation.setDays(1);
+        return vacation;
+    }
+
+    @Test
+    void shouldWriteJsonLines() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(2L, vacationExporter.writeJsonLines(List.of(vacation("Ski"), vacation("Sea")).iterator(),
+                outputStream));
+
+        final String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Ski\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"title\":\"Sea\""));
+    }
+
+    @Test
+    void shouldWriteEscapedCsv() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertEquals(2L, vacationExporter.writeCsv(
+                List.of(vacation("Ski, \"Alps\""), vacation("=SUM(A1)")).iterator(), outputStream));
+
+        final String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,owner,title,startDate"));
+        assertTrue(lines[1].startsWith("1,test,\"Ski, \"\"Alps\"\"\",1970-01-01T00:00:00Z,1970-01-02T00:00:00Z,1.0"));
+        assertTrue(lines[2].startsWith("1,test,\"'=SUM(A1)\","));
+    }
+
+    @Test
+    void shouldEscapeTabAndCarriageReturn() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        vacationExporter.writeCsv(List.of(vacation("\t=1+1"), vacation("\r=1+1")).iterator(), outputStream);
+
+        final String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains("1,test,\"'\t=1+1\","));
+        assertTrue(csv.contains("1,test,\"'\r=1+1\","));
+    }
+}
@@ -0,0 +1,59 @@
+package com.iperka.vacations.api.vacations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class VacationOccupancyTest {
+    private static List<Integer> occupied(final VacationOccupancy occupancy, final int first, final int last) {
+        final List<Integer> days = new ArrayList<>();
+        occupancy.forEachOccupied(first, last, days::add);
+        return days;
+    }
+
+    @Test
+    void shouldOccupyDaysAcrossWords() {
+        final VacationOccupancy occupancy = VacationOccupancy.of("test", 2022);
+        occupancy.occupy(LocalDate.of(2022, 2, 28), LocalDate.of(2022, 3, 8));
+
+        assertFalse(occupancy.isOccupied(58));
+        for (int day = 59; day <= 67; day++) {
+            assertTrue(occupancy.isOccupied(day));
+        }
+        assertFalse(occupancy.isOccupied(68));
+        assertEquals(List.of(59, 60, 61, 62, 63, 64, 65, 66, 67), occupied(occupancy, 1, 366));
+        assertEquals(List.of(64, 65), occupied(occupancy, 64, 65));
+    }
+
+    @Test
+    void shouldClipToYear() {
+        final VacationOccupancy occupancy = VacationOccupancy.of("test", 2024);
+        occupancy.occupy(LocalDate.of(2023, 12, 30), LocalDate.of(2024, 1, 2));
+        occupancy.occupy(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 5));
+        occupancy.occupy(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 2));
+
+        assertEquals(List.of(1, 2, 366), occupied(occupancy, 1, 366));
+    }
+
+    @Test
+    void shouldOccupyWholeYear() {
+        final VacationOccupancy occupancy = VacationOccupancy.of("test", 2022);
+        occupancy.occupy(LocalDate.of(2021, 6, 1), LocalDate.of(2023, 6, 1));
+
+        assertEquals(365, occupied(occupancy, 1, 365).size());
+        assertTrue(occupancy.isOccupied(1));
+        assertTrue(occupancy.isOccupied(365));
+    }
+
+    @Test
+    void shouldReturnYearsOfVacation() {
+        assertEquals(List.of(2022, 2023), VacationOccupancy.years(LocalDate.of(2022, 12, 24), LocalDate.of(2023, 1, 2)));
+        assertEquals(List.of(), VacationOccupancy.years(new Vacation()));
+    }
+}
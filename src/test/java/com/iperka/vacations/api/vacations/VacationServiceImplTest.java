@@ -1,17 +1,32 @@
 package com.iperka.vacations.api.vacations;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.iperka.vacations.api.audit.AuditService;
+import com.iperka.vacations.api.vacations.exceptions.VacationOverlapException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles("test")
@@ -19,11 +34,35 @@ class VacationServiceImplTest {
     @Mock
     private VacationRepository vacationRepository;
 
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private VacationCalendarService vacationCalendarService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     VacationServiceImpl vacationService;
 
     @BeforeEach
     void initUseCase() {
         vacationService = new VacationServiceImpl();
+        ReflectionTestUtils.setField(vacationService, "vacationRepository", vacationRepository);
+        ReflectionTestUtils.setField(vacationService, "auditService", auditService);
+        ReflectionTestUtils.setField(vacationService, "vacationCalendarService", vacationCalendarService);
+        ReflectionTestUtils.setField(vacationService, "applicationEventPublisher", applicationEventPublisher);
+    }
+
+    private static Vacation vacation(final String id, final String owner, final VacationStatus status) {
+        Vacation vacation = new Vacation();
+        vacation.setId(id);
+        vacation.setOwner(owner);
+        vacation.setTitle("test");
+        vacation.setStartDate(new Date(1656633600000L));
+        vacation.setEndDate(new Date(1657152000000L));
+        vacation.setStatus(status);
+        return vacation;
     }
 
     @Test
@@ -41,4 +80,77 @@ class VacationServiceImplTest {
         assertNotNull(savedVacation.getTitle());
     }
 
+    @Test
+    void shouldRejectOverlappingVacation() {
+        Vacation vacation = vacation(null, "test", VacationStatus.REQUESTED);
+        when(vacationRepository.findFirstOverlapping("test", vacation.getStartDate(), vacation.getEndDate(),
+                VacationStatus.OCCUPYING, null)).thenReturn(Optional.of(vacation("existing", "test",
+                        VacationStatus.ACCEPTED)));
+
+        VacationOverlapException e = assertThrows(VacationOverlapException.class,
+                () -> vacationService.create(vacation));
+        assertEquals("existing", e.getConflictingId());
+        assertEquals(409, e.toApiError().getCode());
+        verify(vacationRepository, never()).save(any(Vacation.class));
+    }
+
+    @Test
+    void shouldExcludeUpdatedVacationFromOverlapCheck() throws Exception {
+        Vacation vacation = vacation("id", "test", VacationStatus.ACCEPTED);
+        when(vacationRepository.findByIdAndOwner("id", "test"))
+                .thenReturn(Optional.of(vacation("id", "test", VacationStatus.ACCEPTED)));
+        when(vacationRepository.findFirstOverlapping(eq("test"), any(), any(), eq(VacationStatus.OCCUPYING),
+                eq("id"))).thenReturn(Optional.empty());
+        when(vacationRepository.save(vacation)).thenReturn(vacation);
+
+        assertEquals(vacation, vacationService.updateByOwner(vacation, "test"));
+        verify(vacationCalendarService).refresh("test", Set.of(2022));
+    }
+
+    @Test
+    void shouldPublishStatusChangeWithOwnerOfStoredVacation() throws Exception {
+        // Vacations updated from a DTO carry no owner
+        Vacation vacation = vacation("id", null, VacationStatus.ACCEPTED);
+        when(vacationRepository.findById("id"))
+                .thenReturn(Optional.of(vacation("id", "test", VacationStatus.REQUESTED)));
+        when(vacationRepository.findFirstOverlapping(eq("test"), any(), any(), eq(VacationStatus.OCCUPYING),
+                any())).thenReturn(Optional.empty());
+        when(vacationRepository.save(vacation)).thenReturn(vacation);
+
+        vacationService.update(vacation);
+
+        ArgumentCaptor<VacationStatusChangedEvent> event = ArgumentCaptor.forClass(VacationStatusChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertEquals("id", event.getValue().getVacationId());
+        assertEquals("test", event.getValue().getOwner());
+        assertEquals("requested", event.getValue().getFrom());
+        assertEquals("accepted", event.getValue().getTo());
+    }
+
+    @Test
+    void shouldNotCheckOverlapOfWithdrawnVacation() throws Exception {
+        Vacation vacation = vacation(null, "test", VacationStatus.WITHDRAWN);
+        when(vacationRepository.save(vacation)).thenReturn(vacation("id", "test", VacationStatus.WITHDRAWN));
+
+        vacationService.create(vacation);
+
+        verify(vacationRepository, never()).findFirstOverlapping(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldGroupAbsencesByOwner() {
+        Date from = new Date(1656633600000L);
+        Date to = new Date(1659225600000L);
+        Vacation first = vacation("a", "alice", VacationStatus.ACCEPTED);
+        Vacation second = vacation("b", "alice", VacationStatus.REQUESTED);
+        Vacation third = vacation("c", "bob", VacationStatus.ACCEPTED);
+        when(vacationRepository.findAllOverlapping(Set.of("alice", "bob", "carol"), from, to,
+                VacationStatus.OCCUPYING)).thenReturn(List.of(first, second, third));
+
+        Map<String, List<Vacation>> absences = vacationService.findAbsences(Set.of("alice", "bob", "carol"), from,
+                to);
+
+        assertEquals(Map.of("alice", List.of(first, second), "bob", List.of(third)), absences);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.iperka.vacations.api.vacations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Optional;
+
+import com.iperka.vacations.api.mail.MailService;
+import com.iperka.vacations.api.mail.MailTemplates;
+import com.iperka.vacations.api.users.auth0.ManagementService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class VacationStatusNotifierTest {
+    private static final String OWNER = "iperka|61d48d95c3f245006c2caff3";
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private ManagementService managementService;
+
+    private VacationStatusNotifier notifier;
+
+    @BeforeEach
+    void initUseCase() throws Exception {
+        final MailTemplates mailTemplates = new MailTemplates();
+        ReflectionTestUtils.setField(mailTemplates, "resourceLoader", new DefaultResourceLoader());
+        mailTemplates.initialize();
+
+        notifier = new VacationStatusNotifier();
+        ReflectionTestUtils.setField(notifier, "enabled", true);
+        ReflectionTestUtils.setField(notifier, "windowSeconds", 3600L);
+        ReflectionTestUtils.setField(notifier, "fromAddress", "no-reply@iperka.com");
+        ReflectionTestUtils.setField(notifier, "fromName", "iperka");
+        ReflectionTestUtils.setField(notifier, "mailService", mailService);
+        ReflectionTestUtils.setField(notifier, "mailTemplates", mailTemplates);
+        ReflectionTestUtils.setField(notifier, "managementService", managementService);
+        ReflectionTestUtils.setField(notifier, "meterRegistry", new SimpleMeterRegistry());
+        notifier.initialize();
+    }
+
+    @AfterEach
+    void shutdown() {
+        notifier.shutdown();
+    }
+
+    private static VacationStatusChangedEvent change(final String id, final String from, final String to) {
+        return new VacationStatusChangedEvent(id, OWNER, "Ski Trip " + id, new Date(1641921152721L),
+                new Date(1642521152721L), from, to);
+    }
+
+    @Test
+    void shouldCoalesceChangesIntoOneDigest() throws Exception {
+        when(managementService.getEmail(OWNER)).thenReturn(Optional.of("test@iperka.com"));
+
+        notifier.onStatusChanged(change("1", "requested", "accepted"));
+        notifier.onStatusChanged(change("2", "requested", "accepted"));
+        notifier.onStatusChanged(change("3", "requested", "rejected"));
+        notifier.flush(OWNER);
+
+        final ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailService).send(message.capture());
+        assertEquals("test@iperka.com", message.getValue().getTo()[0]);
+        assertEquals("Vacations: 3 status change(s)", message.getValue().getSubject());
+        assertTrue(message.getValue().getText().contains("- Ski Trip 3 (2022-01-"));
+        assertTrue(message.getValue().getText().contains("requested -> rejected"));
+    }
+
+    @Test
+    void shouldKeepFirstStatusOfVacation() throws Exception {
+        when(managementService.getEmail(OWNER)).thenReturn(Optional.of("test@iperka.com"));
+
+        notifier.onStatusChanged(change("1", "requested", "accepted"));
+        notifier.onStatusChanged(change("1", "accepted", "rejected"));
+        notifier.flush(OWNER);
+
+        final ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailService).send(message.capture());
+        assertEquals("Vacations: 1 status change(s)", message.getValue().getSubject());
+        assertTrue(message.getValue().getText().contains("requested -> rejected"));
+    }
+
+    @Test
+    void shouldSkipRevertedChanges() throws Exception {
+        notifier.onStatusChanged(change("1", "requested", "accepted"));
+        notifier.onStatusChanged(change("1", "accepted", "requested"));
+        notifier.flush(OWNER);
+
+        verify(managementService, never()).getEmail(OWNER);
+        verify(mailService, never()).send(any(SimpleMailMessage.class));
+    }
+}